@@ -0,0 +1,63 @@
+package bench;
+
+import core.Board;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One {@code GridBoard.chord} per operation on a revealed numbered cell whose
+ * mines are all flagged, so the chord opens every other neighbour.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChordBenchmark {
+    @Param({"9", "30", "200", "1000", "4000"})
+    int size;
+
+    @Param({"0.02", "0.12", "0.20"})
+    double density;
+
+    private Board ready;
+    private int chordR, chordC;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int[][] layout = Fixtures.layout(size, density);
+        Board armed = Fixtures.armed(layout, Fixtures.mines(size, density));
+
+        // numbered cell nearest the centre that still has a hidden safe neighbour to open
+        int[] target = Fixtures.nearest(size, size, size / 2, size / 2,
+                (r, c) -> layout[r][c] > 0 && hasHiddenSafeNeighbour(armed, layout, r, c));
+        if (target == null) throw new IllegalStateException("No cell to chord on this layout");
+        chordR = target[0];
+        chordC = target[1];
+
+        Board board = armed.reveal(chordR, chordC);
+        for (int r = chordR - 1; r <= chordR + 1; r++) {
+            for (int c = chordC - 1; c <= chordC + 1; c++) {
+                if (board.inBounds(r, c) && layout[r][c] < 0) board = board.toggleFlag(r, c);
+            }
+        }
+        ready = board;
+    }
+
+    private static boolean hasHiddenSafeNeighbour(Board board, int[][] layout, int r, int c) {
+        for (int nr = r - 1; nr <= r + 1; nr++) {
+            for (int nc = c - 1; nc <= c + 1; nc++) {
+                if ((nr != r || nc != c) && board.inBounds(nr, nc) && layout[nr][nc] >= 0
+                        && board.visibleAt(nr, nc).isHidden()) return true;
+            }
+        }
+        return false;
+    }
+
+    @Benchmark
+    public Board chord() {
+        return ready.chord(chordR, chordC);
+    }
+}
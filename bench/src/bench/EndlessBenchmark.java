@@ -0,0 +1,59 @@
+package bench;
+
+import core.Board;
+import core.ChunkedBoard;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The "Endless" board ({@code ChunkedBoard.unbounded}). {@code firstReveal}
+ * is the first click on a fresh board, deep inside the grid.
+ * {@code panViewport} reads every cell of a window-sized viewport the way the
+ * view paints it, moving one viewport to the right per call, so each call
+ * reaches chunks that have to be generated (or regenerated after eviction).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EndlessBenchmark {
+    private static final int START = 1 << 30;                 // far from every edge
+    private static final int VIEW_ROWS = 26, VIEW_COLS = 32;  // 900x720 window at 28 px cells
+
+    @Param({"0.12", "0.20"})
+    double density;
+
+    private Board opened;
+
+    @State(Scope.Thread)
+    public static class Viewport {
+        int col = START;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        opened = ChunkedBoard.unbounded(density, Fixtures.SEED).reveal(START, START);
+    }
+
+    @Benchmark
+    public Board firstReveal() {
+        return ChunkedBoard.unbounded(density, Fixtures.SEED).reveal(START, START);
+    }
+
+    @Benchmark
+    public int panViewport(Viewport viewport) {
+        int c0 = viewport.col;
+        viewport.col = c0 < Integer.MAX_VALUE - 2 * VIEW_COLS ? c0 + VIEW_COLS : START;
+        int shown = 0;
+        for (int r = START; r < START + VIEW_ROWS; r++) {
+            for (int c = c0; c < c0 + VIEW_COLS; c++) {
+                if (opened.visibleAt(r, c).isRevealed()) shown += opened.adjacentMines(r, c);
+                else if (opened.isMine(r, c)) shown++;
+            }
+        }
+        return shown;
+    }
+}
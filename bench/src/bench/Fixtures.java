@@ -0,0 +1,71 @@
+package bench;
+
+import core.Board;
+import core.GridBoard;
+import core.RandomMinePlacer;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Boards shared by the suites. Everything is derived from a fixed seed so
+ * runs on different commits measure the same games.
+ */
+final class Fixtures {
+    static final long SEED = 42;
+
+    private Fixtures() { }
+
+    static int mines(int size, double density) {
+        return Math.max(1, (int) (size * (long) size * density));
+    }
+
+    /** Layout of a {@code size x size} game whose first click was the centre. */
+    static int[][] layout(int size, double density) {
+        return new RandomMinePlacer(new Random(SEED)).placeMines(size, size, mines(size, density), size / 2, size / 2);
+    }
+
+    /** Board with {@code layout} placed and only one numbered cell revealed. */
+    static Board armed(int[][] layout, int mines) {
+        int size = layout.length;
+        int[] numbered = nearest(size, size, size / 2, size / 2, (r, c) -> layout[r][c] > 0);
+        if (numbered == null) numbered = new int[]{size / 2, size / 2};
+        return new GridBoard(size, layout[0].length, mines, (r, c, m, sr, sc) -> layout).reveal(numbered[0], numbered[1]);
+    }
+
+    /** Predicate over a cell, kept primitive so scans over large boards do not box. */
+    interface CellTest {
+        boolean test(int r, int c);
+    }
+
+    /**
+     * Cell nearest to ({@code r}, {@code c}), scanning square rings outward,
+     * that passes {@code test}; null when there is none.
+     */
+    static int[] nearest(int rows, int cols, int r, int c, CellTest test) {
+        for (int d = 0; d < Math.max(rows, cols); d++) {
+            for (int nr = Math.max(0, r - d); nr <= Math.min(rows - 1, r + d); nr++) {
+                boolean edgeRow = nr == r - d || nr == r + d;
+                int step = edgeRow ? 1 : Math.max(1, 2 * d);
+                for (int nc = c - d; nc <= c + d; nc += step) {
+                    if (nc >= 0 && nc < cols && test.test(nr, nc)) return new int[]{nr, nc};
+                }
+            }
+        }
+        return null;
+    }
+
+    /** Up to {@code count} distinct hidden safe cells of {@code board}, as {r, c} pairs. */
+    static int[][] hiddenSafeCells(Board board, int[][] layout, int count) {
+        Random rng = new Random(SEED);
+        int size = layout.length;
+        int[][] cells = new int[count][];
+        int found = 0;
+        for (int tries = 0; found < count && tries < count * 64; tries++) {
+            int r = rng.nextInt(size), c = rng.nextInt(size);
+            if (layout[r][c] >= 0 && board.visibleAt(r, c).isHidden()) cells[found++] = new int[]{r, c};
+        }
+        if (found == 0) throw new IllegalStateException("No hidden safe cell");
+        return Arrays.copyOf(cells, found);
+    }
+}
@@ -0,0 +1,109 @@
+package bench;
+
+import core.BitBoard;
+import core.Board;
+import core.GridBoard;
+import core.MinePlacer;
+import core.RandomMinePlacer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of opening one large zero region, and of losing on a mine (which
+ * reveals every mine), on either board implementation. The reported
+ * {@code cells} rate is the number of cells revealed per second by floods.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FloodRevealBenchmark {
+    @Param({"200", "1000", "2000"})
+    int size;
+
+    @Param({"0.02", "0.10"})
+    double density;
+
+    @Param({"grid", "bits"})
+    String board;
+
+    private Board armed;   // layout placed, nothing but one numbered cell revealed
+    private int startR, startC;
+    private int mineR, mineC;
+    private int cellsPerReveal;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Cells {
+        public long cells;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int mines = (int) (size * (long) size * density);
+        int[][] layout = new RandomMinePlacer(new Random(42)).placeMines(size, size, mines, size / 2, size / 2);
+        int[] numbered = find(layout, 1);
+        MinePlacer fixed = (r, c, m, sr, sc) -> layout;
+        armed = switch (board) {
+            case "grid" -> new GridBoard(size, size, mines, fixed);
+            case "bits" -> new BitBoard(size, size, mines, fixed);
+            default -> throw new IllegalArgumentException("Unknown board: " + board);
+        };
+        armed = armed.reveal(numbered[0], numbered[1]);
+        int[] mine = find(layout, -1);
+        mineR = mine[0];
+        mineC = mine[1];
+
+        // pick the zero cell whose region is largest among a few candidates near the centre
+        startR = size / 2;
+        startC = size / 2;
+        int best = -1;
+        for (int r = 0; r < size; r += Math.max(1, size / 8)) {
+            for (int c = 0; c < size; c += Math.max(1, size / 8)) {
+                if (layout[r][c] != 0 || !armed.visibleAt(r, c).isHidden()) continue;
+                int opened = revealedCount(armed.reveal(r, c)) - revealedCount(armed);
+                if (opened > best) {
+                    best = opened;
+                    startR = r;
+                    startC = c;
+                }
+            }
+        }
+        cellsPerReveal = revealedCount(armed.reveal(startR, startC)) - revealedCount(armed);
+    }
+
+    @Benchmark
+    public Board floodReveal(Cells counter) {
+        counter.cells += cellsPerReveal;
+        return armed.reveal(startR, startC);
+    }
+
+    @Benchmark
+    public Board loseOnMine() {
+        return armed.reveal(mineR, mineC);
+    }
+
+    /** First cell with at least {@code minCount} adjacent mines, or the first mine for -1. */
+    private static int[] find(int[][] layout, int minCount) {
+        for (int r = 0; r < layout.length; r++) {
+            for (int c = 0; c < layout[r].length; c++) {
+                if (minCount < 0 ? layout[r][c] == -1 : layout[r][c] >= minCount) return new int[]{r, c};
+            }
+        }
+        throw new IllegalStateException("No such cell in layout");
+    }
+
+    private static int revealedCount(Board b) {
+        int n = 0;
+        for (int r = 0; r < b.rows(); r++) {
+            for (int c = 0; c < b.cols(); c++) {
+                if (b.visibleAt(r, c).isRevealed()) n++;
+            }
+        }
+        return n;
+    }
+}
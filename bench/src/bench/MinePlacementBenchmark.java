@@ -0,0 +1,44 @@
+package bench;
+
+import core.RandomMinePlacer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code RandomMinePlacer} on its own: the bit set the boards consume and the
+ * full count grid.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MinePlacementBenchmark {
+    @Param({"9", "30", "200", "1000", "4000"})
+    int size;
+
+    @Param({"0.02", "0.12", "0.20", "0.80"})
+    double density;
+
+    private int mines;
+    private RandomMinePlacer placer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mines = Fixtures.mines(size, density);
+        placer = new RandomMinePlacer(new Random(Fixtures.SEED));
+    }
+
+    @Benchmark
+    public long[] placeMineBits() {
+        return placer.placeMineBits(size, size, mines, size / 2, size / 2);
+    }
+
+    @Benchmark
+    public int[][] placeMines() {
+        return placer.placeMines(size, size, mines, size / 2, size / 2);
+    }
+}
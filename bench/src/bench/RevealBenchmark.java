@@ -0,0 +1,79 @@
+package bench;
+
+import core.Board;
+import core.GridBoard;
+import core.RandomMinePlacer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One {@code GridBoard.reveal} per operation. The click pattern picks what
+ * the click hits:
+ * <ul>
+ *   <li>{@code first}: first click on a fresh board, so mine placement and
+ *       counting are included;</li>
+ *   <li>{@code number}: a hidden numbered cell, the cheapest path;</li>
+ *   <li>{@code zero}: the zero cell nearest the centre, opening its region;</li>
+ *   <li>{@code random}: a different hidden safe cell on every call.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RevealBenchmark {
+    @Param({"9", "30", "200", "1000", "4000"})
+    int size;
+
+    @Param({"0.02", "0.12", "0.20"})
+    double density;
+
+    @Param({"first", "number", "zero", "random"})
+    String click;
+
+    private int mines;
+    private Board armed;
+    private int[][] targets;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mines = Fixtures.mines(size, density);
+        int[][] layout = Fixtures.layout(size, density);
+        armed = Fixtures.armed(layout, mines);
+        int centre = size / 2;
+        switch (click) {
+            case "first" -> targets = new int[][]{{centre, centre}};
+            case "number" -> targets = new int[][]{hidden(layout, 1, centre)};
+            case "zero" -> targets = new int[][]{hidden(layout, 0, centre)};
+            case "random" -> targets = Fixtures.hiddenSafeCells(armed, layout, 1024);
+            default -> throw new IllegalArgumentException("Unknown click pattern: " + click);
+        }
+    }
+
+    /** Hidden cell nearest the centre with exactly {@code count} adjacent mines. */
+    private int[] hidden(int[][] layout, int count, int centre) {
+        int[] cell = Fixtures.nearest(size, size, centre, centre,
+                (r, c) -> layout[r][c] == count && armed.visibleAt(r, c).isHidden());
+        // no such cell on this layout; fall back to any hidden safe cell
+        return cell != null ? cell : Fixtures.hiddenSafeCells(armed, layout, 1)[0];
+    }
+
+    @Benchmark
+    public Board reveal(Cursor cursor) {
+        int[] cell = targets[cursor.next];
+        if (++cursor.next == targets.length) cursor.next = 0;
+        if (click.equals("first")) {
+            return new GridBoard(size, size, mines, new RandomMinePlacer(new Random(Fixtures.SEED))).reveal(cell[0], cell[1]);
+        }
+        return armed.reveal(cell[0], cell[1]);
+    }
+}
@@ -0,0 +1,46 @@
+package bench;
+
+import core.Board;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One {@code GridBoard.toggleFlag} per operation, cycling over hidden cells
+ * spread across the board.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ToggleFlagBenchmark {
+    @Param({"9", "30", "200", "1000", "4000"})
+    int size;
+
+    @Param({"0.02", "0.12", "0.20"})
+    double density;
+
+    private Board armed;
+    private int[][] targets;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int[][] layout = Fixtures.layout(size, density);
+        armed = Fixtures.armed(layout, Fixtures.mines(size, density));
+        targets = Fixtures.hiddenSafeCells(armed, layout, 1024);
+    }
+
+    @Benchmark
+    public Board toggleFlag(Cursor cursor) {
+        int[] cell = targets[cursor.next];
+        if (++cursor.next == targets.length) cursor.next = 0;
+        return armed.toggleFlag(cell[0], cell[1]);
+    }
+}
@@ -4,10 +4,17 @@ import javafx.application.Application;
 import javafx.stage.Stage;
 import ui.fx.FxMinesweeperWindow;
 
+import java.util.Arrays;
+
 public class Main extends Application {
     private static String[] savedArgs;
 
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("--headless")) {
+            // batch simulation; see Simulation for the options
+            Simulation.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
         savedArgs = args;
         launch(args);
     }
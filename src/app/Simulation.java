@@ -0,0 +1,185 @@
+package app;
+
+import core.Board;
+import core.GridBoard;
+import core.SeededMinePlacer;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Headless batch mode: plays many games through the {@link Board} API on all
+ * cores and reports games per second, win rate, average reveal latency and
+ * allocation per game. Needs no display and no JavaFX.
+ *
+ * <pre>
+ * Simulation [--games=N] [--strategy=NAME] [--threads=N] [--seed=S]
+ *            [beginner | intermediate | advanced | all | &lt;rows&gt; &lt;cols&gt; &lt;mines&gt;]
+ * </pre>
+ *
+ * Game {@code g} of a run always uses seed {@code S + g}, so runs with the same
+ * seed play the same layouts whatever the thread count.
+ */
+public final class Simulation {
+    private record Setup(String name, int rows, int cols, int mines) { }
+
+    private static final List<Setup> PRESETS = List.of(
+            new Setup("beginner", 9, 9, 10),
+            new Setup("intermediate", 16, 16, 40),
+            new Setup("advanced", 16, 30, 99));
+
+    /** Per-worker counters, merged once the worker is done. */
+    private static final class Tally {
+        long games, wins, reveals, revealNanos, allocatedBytes;
+
+        void add(Tally other) {
+            games += other.games;
+            wins += other.wins;
+            reveals += other.reveals;
+            revealNanos += other.revealNanos;
+            allocatedBytes += other.allocatedBytes;
+        }
+    }
+
+    private final int games;
+    private final Strategy strategy;
+    private final int threads;
+    private final long seed;
+
+    private Simulation(int games, Strategy strategy, int threads, long seed) {
+        if (games <= 0) throw new IllegalArgumentException("Invalid game count");
+        if (threads <= 0) throw new IllegalArgumentException("Invalid thread count");
+        this.games = games;
+        this.strategy = strategy;
+        this.threads = threads;
+        this.seed = seed;
+    }
+
+    public static void main(String[] args) {
+        int games = 10_000;
+        String strategy = "basic";
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = 1;
+        List<String> rest = new ArrayList<>();
+        try {
+            for (String arg : args) {
+                if (arg.startsWith("--games=")) games = Integer.parseInt(arg.substring(8));
+                else if (arg.startsWith("--strategy=")) strategy = arg.substring(11);
+                else if (arg.startsWith("--threads=")) threads = Integer.parseInt(arg.substring(10));
+                else if (arg.startsWith("--seed=")) seed = Long.parseLong(arg.substring(7));
+                else rest.add(arg);
+            }
+            Simulation simulation = new Simulation(games, Strategy.named(strategy), threads, seed);
+            for (Setup setup : setups(rest)) simulation.run(setup);
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+            System.out.println("Use: [--games=N] [--strategy=random|basic|<class>] [--threads=N] [--seed=S]"
+                    + " [beginner|intermediate|advanced|all|<rows> <cols> <mines>]");
+        }
+    }
+
+    private static List<Setup> setups(List<String> args) {
+        if (args.isEmpty() || (args.size() == 1 && args.get(0).equalsIgnoreCase("all"))) return PRESETS;
+        if (args.size() == 1) {
+            for (Setup preset : PRESETS) {
+                if (preset.name().equalsIgnoreCase(args.get(0))) return List.of(preset);
+            }
+            throw new IllegalArgumentException("Unknown preset: " + args.get(0));
+        }
+        if (args.size() == 3) {
+            int rows = Integer.parseInt(args.get(0));
+            int cols = Integer.parseInt(args.get(1));
+            int mines = Integer.parseInt(args.get(2));
+            return List.of(new Setup("custom", rows, cols, mines));
+        }
+        throw new IllegalArgumentException("Invalid arguments");
+    }
+
+    private void run(Setup setup) {
+        AtomicInteger nextGame = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        Tally total = new Tally();
+        long start = System.nanoTime();
+        try {
+            List<Future<Tally>> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) workers.add(pool.submit(() -> play(setup, nextGame)));
+            for (Future<Tally> worker : workers) total.add(worker.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Simulation failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println(String.format(Locale.ROOT,
+                "%-12s %dx%d/%d: %d games in %.2f s, %.0f games/s, win %.1f %%, reveal %.2f us avg, %s/game",
+                setup.name(), setup.rows(), setup.cols(), setup.mines(), total.games, seconds,
+                total.games / seconds, 100.0 * total.wins / total.games,
+                total.reveals == 0 ? 0.0 : total.revealNanos / 1e3 / total.reveals,
+                total.allocatedBytes < 0 ? "n/a" : String.format(Locale.ROOT, "%.1f KB", total.allocatedBytes / 1024.0 / total.games)));
+    }
+
+    /** Worker loop: claims game numbers until the run is done. */
+    private Tally play(Setup setup, AtomicInteger nextGame) {
+        Tally tally = new Tally();
+        long allocatedBefore = allocatedBytes();
+        int game;
+        while ((game = nextGame.getAndIncrement()) < games) {
+            long gameSeed = seed + game;
+            SplittableRandom rng = new SplittableRandom(gameSeed);
+            Board board = new GridBoard(setup.rows(), setup.cols(), setup.mines(), new SeededMinePlacer(gameSeed));
+            board = reveal(board, setup.rows() / 2, setup.cols() / 2, tally);
+            // every move changes at least one cell, so a game can not take more moves than this
+            int movesLeft = 2 * setup.rows() * setup.cols();
+            while (!board.isWon() && !board.isLost() && movesLeft-- > 0) {
+                Strategy.Move move = strategy.next(board, rng);
+                board = switch (move.action()) {
+                    case REVEAL -> reveal(board, move.r(), move.c(), tally);
+                    case CHORD -> chord(board, move.r(), move.c(), tally);
+                    case FLAG -> board.toggleFlag(move.r(), move.c());
+                };
+            }
+            tally.games++;
+            if (board.isWon()) tally.wins++;
+        }
+        long allocatedAfter = allocatedBytes();
+        tally.allocatedBytes = allocatedBefore < 0 ? -1 : allocatedAfter - allocatedBefore;
+        return tally;
+    }
+
+    private static Board reveal(Board board, int r, int c, Tally tally) {
+        long start = System.nanoTime();
+        Board next = board.reveal(r, c);
+        tally.revealNanos += System.nanoTime() - start;
+        tally.reveals++;
+        return next;
+    }
+
+    private static Board chord(Board board, int r, int c, Tally tally) {
+        long start = System.nanoTime();
+        Board next = board.chord(r, c);
+        tally.revealNanos += System.nanoTime() - start;
+        tally.reveals++;
+        return next;
+    }
+
+    /** Bytes allocated so far by the calling thread, or -1 when the JVM does not track it. */
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+            return bean.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+}
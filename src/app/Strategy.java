@@ -0,0 +1,110 @@
+package app;
+
+import core.Board;
+import core.Cell;
+import core.Solver;
+
+import java.util.SplittableRandom;
+
+/**
+ * Chooses the next move in a headless game (see {@link Simulation}). The
+ * simulation makes the first click itself, in the centre, so strategies
+ * always start from an opened board. A strategy only sees the visible board:
+ * it must not call {@link Board#isMine} or read counts of hidden cells.
+ */
+public interface Strategy {
+    enum Action { REVEAL, FLAG, CHORD }
+
+    record Move(Action action, int r, int c) { }
+
+    /** Next move on a board that is neither won nor lost. */
+    Move next(Board board, SplittableRandom rng);
+
+    /**
+     * Built-in strategy by name ({@code random}, {@code basic} or
+     * {@code solver}), or any
+     * class implementing this interface with a public no-arg constructor.
+     */
+    static Strategy named(String name) {
+        switch (name) {
+            case "random": return Strategy::randomGuess;
+            case "basic":  return Strategy::basic;
+            case "solver": return solver();
+            default:
+                try {
+                    return (Strategy) Class.forName(name).getDeclaredConstructor().newInstance();
+                } catch (ReflectiveOperationException | ClassCastException e) {
+                    throw new IllegalArgumentException("Unknown strategy: " + name, e);
+                }
+        }
+    }
+
+    /** Reveals a uniformly random hidden cell. */
+    static Move randomGuess(Board board, SplittableRandom rng) {
+        int rows = board.rows(), cols = board.cols();
+        // rejection sampling is cheap while hidden cells are common; fall back to a scan
+        for (int tries = 0; tries < 64; tries++) {
+            int r = rng.nextInt(rows), c = rng.nextInt(cols);
+            if (board.visibleAt(r, c).isHidden()) return new Move(Action.REVEAL, r, c);
+        }
+        int start = rng.nextInt(rows * cols);
+        for (int k = 0; k < rows * cols; k++) {
+            int i = (start + k) % (rows * cols);
+            if (board.visibleAt(i / cols, i % cols).isHidden()) return new Move(Action.REVEAL, i / cols, i % cols);
+        }
+        throw new IllegalStateException("No hidden cell left");
+    }
+
+    /**
+     * Single-cell deductions: chords a number whose mines are all flagged,
+     * flags the hidden neighbours of a number that needs all of them, and
+     * guesses at random when neither applies. Scans the whole board per move,
+     * which is fine for the presets but slow on very large custom boards.
+     */
+    static Move basic(Board board, SplittableRandom rng) {
+        int rows = board.rows(), cols = board.cols();
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                if (!board.visibleAt(r, c).isRevealed()) continue;
+                int number = board.adjacentMines(r, c);
+                if (number <= 0) continue;
+                int flagged = 0, hidden = 0, hiddenR = -1, hiddenC = -1;
+                for (int nr = r - 1; nr <= r + 1; nr++) {
+                    for (int nc = c - 1; nc <= c + 1; nc++) {
+                        if (!board.inBounds(nr, nc)) continue;
+                        switch (board.visibleAt(nr, nc)) {
+                            case FLAGGED -> flagged++;
+                            case HIDDEN -> { hidden++; hiddenR = nr; hiddenC = nc; }
+                            default -> { }
+                        }
+                    }
+                }
+                if (hidden == 0) continue;
+                if (flagged == number) return new Move(Action.CHORD, r, c);
+                if (number - flagged == hidden) return new Move(Action.FLAG, hiddenR, hiddenC);
+            }
+        }
+        return randomGuess(board, rng);
+    }
+
+    /**
+     * Reveals cells the {@link Solver} proves safe and otherwise guesses at
+     * random, avoiding proven mines. Each thread keeps one solver that follows
+     * the game it is playing.
+     */
+    static Strategy solver() {
+        ThreadLocal<Solver> solvers = new ThreadLocal<>();
+        return (board, rng) -> {
+            Solver solver = solvers.get();
+            if (solver == null) solvers.set(solver = new Solver(board));
+            else solver.update(board);
+            Cell safe = solver.nextSafe();
+            if (safe != null) return new Move(Action.REVEAL, safe.r(), safe.c());
+            Move guess = randomGuess(board, rng);
+            for (int tries = 0; tries < 16 && solver.isMine(guess.r(), guess.c()); tries++) {
+                guess = randomGuess(board, rng);
+            }
+            return guess;
+        };
+    }
+}
@@ -0,0 +1,118 @@
+package core;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Turns a mine bit set into packed layout bytes (mine bit or neighbour count)
+ * for any {@link MinePlacer}. Each row is a separable 3x3 box sum: a vertical
+ * sum of the three mine rows, then a horizontal sum of three neighbouring
+ * columns, minus the cell itself. Both passes run over zero-padded scratch
+ * rows so the inner loops have no bounds checks. Large boards split their
+ * rows into bands on the common fork-join pool; bands write disjoint rows.
+ */
+final class AdjacencyCounter {
+    private static final int PARALLEL_THRESHOLD = 1 << 16;  // cells; below this run on the caller
+    private static final int MIN_BAND_CELLS = 1 << 15;
+
+    private AdjacencyCounter() { }
+
+    static byte[] count(long[] mineBits, int rows, int cols) {
+        return count(mineBits, rows, cols, ForkJoinPool.commonPool());
+    }
+
+    /** {@link #count} with the bands on {@code pool}; tests pass their own to reach them on one core. */
+    static byte[] count(long[] mineBits, int rows, int cols, ForkJoinPool pool) {
+        byte[] layout = new byte[rows * cols];
+        if ((long) rows * cols < PARALLEL_THRESHOLD || pool.getParallelism() < 2) {
+            countRows(mineBits, rows, cols, 0, rows, layout);
+        } else {
+            int bandRows = Math.max(1, MIN_BAND_CELLS / cols);
+            pool.invoke(new Band(mineBits, rows, cols, 0, rows, bandRows, layout));
+        }
+        return layout;
+    }
+
+    /** Same counts in the {@link MinePlacer#placeMines} shape: -1 for mines, else the count. */
+    static int[][] grid(long[] mineBits, int rows, int cols) {
+        byte[] layout = count(mineBits, rows, cols);
+        int[][] result = new int[rows][cols];
+        for (int r = 0; r < rows; r++) {
+            int[] row = result[r];
+            int base = r * cols;
+            for (int c = 0; c < cols; c++) {
+                byte cell = layout[base + c];
+                row[c] = CellStore.isMine(cell) ? -1 : cell;
+            }
+        }
+        return result;
+    }
+
+    private static void countRows(long[] mineBits, int rows, int cols, int from, int to, byte[] layout) {
+        // mine rows r-1, r, r+1 padded with a zero column on both sides
+        int[] above = new int[cols + 2];
+        int[] here = new int[cols + 2];
+        int[] below = new int[cols + 2];
+        int[] vertical = new int[cols + 2];
+        if (from > 0) unpack(mineBits, cols, from - 1, above);
+        unpack(mineBits, cols, from, here);
+
+        for (int r = from; r < to; r++) {
+            if (r + 1 < rows) unpack(mineBits, cols, r + 1, below);
+            else Arrays.fill(below, 0);
+
+            for (int k = 1; k <= cols; k++) {
+                vertical[k] = above[k] + here[k] + below[k];
+            }
+            int base = r * cols - 1;
+            for (int k = 1; k <= cols; k++) {
+                int mine = here[k];
+                int count = vertical[k - 1] + vertical[k] + vertical[k + 1] - mine;
+                // mine ? MINE : count, without a branch
+                layout[base + k] = (byte) (count + mine * (CellStore.MINE - count));
+            }
+
+            int[] recycled = above;
+            above = here;
+            here = below;
+            below = recycled;
+        }
+    }
+
+    private static void unpack(long[] mineBits, int cols, int r, int[] row) {
+        int i = r * cols;
+        for (int k = 1; k <= cols; k++, i++) {
+            row[k] = (int) (mineBits[i >>> 6] >>> i) & 1;
+        }
+    }
+
+    private static final class Band extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final long[] mineBits;
+        private final int rows, cols, from, to, bandRows;
+        private final byte[] layout;
+
+        Band(long[] mineBits, int rows, int cols, int from, int to, int bandRows, byte[] layout) {
+            this.mineBits = mineBits;
+            this.rows = rows;
+            this.cols = cols;
+            this.from = from;
+            this.to = to;
+            this.bandRows = bandRows;
+            this.layout = layout;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= bandRows) {
+                countRows(mineBits, rows, cols, from, to, layout);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Band(mineBits, rows, cols, from, mid, bandRows, layout),
+                    new Band(mineBits, rows, cols, mid, to, bandRows, layout));
+        }
+    }
+}
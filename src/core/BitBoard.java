@@ -0,0 +1,470 @@
+package core;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link Board} stored as bit planes: one bit per cell, each row padded to
+ * whole 64-bit words. Mines and the four bit-sliced count planes are built
+ * once at placement and shared by every later version; revealed and flagged
+ * planes are copied per move. Whole-board work becomes word arithmetic:
+ * counts are a bit-sliced adder over eight shifted mine planes, a loss ORs
+ * the mine plane into the revealed plane, and a flood dilates zero runs a
+ * row of words at a time. Behaves exactly like {@link GridBoard}, except
+ * that {@link #changedCells} lists cells in row-major rather than BFS order.
+ */
+public final class BitBoard implements Board {
+    private static final AtomicLong VERSIONS = new AtomicLong();
+    private static final int[] NO_CHANGES = new int[0];
+
+    private final int rows;
+    private final int cols;
+    private final int mines;
+    private final MinePlacer placer;
+    private final int words;       // words per row
+    private final long lastMask;   // valid bits of each row's last word
+    private final Layout layout;   // null until the first reveal triggers placement
+    private final long[] revealed;
+    private final long[] flagged;
+    private final boolean lost;
+    private final int revealedCount;
+    private final int flaggedCount;
+    // diff bookkeeping as in GridBoard
+    private final long version;
+    private final ChangeLog changes;
+
+    public BitBoard(int rows, int cols, int mines, MinePlacer placer) {
+        this(rows, cols, mines, placer, null, new long[planeSize(rows, cols)], new long[planeSize(rows, cols)],
+                false, 0, 0, VERSIONS.incrementAndGet(), null);
+    }
+
+    private BitBoard(int rows, int cols, int mines, MinePlacer placer, Layout layout,
+                     long[] revealed, long[] flagged, boolean lost, int revealedCount, int flaggedCount,
+                     long version, ChangeLog changes) {
+        if (mines < 0 || mines >= rows * cols) throw new IllegalArgumentException("Invalid mine count");
+        this.rows = rows;
+        this.cols = cols;
+        this.mines = mines;
+        this.placer = Objects.requireNonNull(placer, "placer");
+        this.words = (cols + 63) >>> 6;
+        this.lastMask = -1L >>> (-cols & 63);
+        this.layout = layout;
+        this.revealed = revealed;
+        this.flagged = flagged;
+        this.lost = lost;
+        this.revealedCount = revealedCount;
+        this.flaggedCount = flaggedCount;
+        this.version = version;
+        this.changes = changes;
+    }
+
+    private BitBoard derive(long[] nextRevealed, long[] nextFlagged, boolean nextLost,
+                            int nextRevealedCount, int nextFlaggedCount, int[] changedCells) {
+        return new BitBoard(rows, cols, mines, placer, layout, nextRevealed, nextFlagged, nextLost,
+                nextRevealedCount, nextFlaggedCount, VERSIONS.incrementAndGet(),
+                ChangeLog.after(changes, version, changedCells, rows * cols));
+    }
+
+    private static int planeSize(int rows, int cols) {
+        if (rows <= 0 || cols <= 0) throw new IllegalArgumentException("Invalid size");
+        long size = (long) rows * cols;
+        long words = (long) rows * ((cols + 63) >>> 6);
+        if (size > Integer.MAX_VALUE || words > Integer.MAX_VALUE) throw new IllegalArgumentException("Board too large");
+        return (int) words;
+    }
+
+    private int word(int r, int c) {
+        return r * words + (c >>> 6);
+    }
+
+    private static boolean test(long[] plane, int word, int c) {
+        return (plane[word] & (1L << c)) != 0;
+    }
+
+    /** Valid column bits of word {@code w} of a row. */
+    private long colMask(int w) {
+        return w == words - 1 ? lastMask : -1L;
+    }
+
+    @Override
+    public int rows() {
+        return rows;
+    }
+
+    @Override
+    public int cols() {
+        return cols;
+    }
+
+    @Override
+    public boolean inBounds(int r, int c) {
+        return r >= 0 && r < rows && c >= 0 && c < cols;
+    }
+
+    @Override
+    public boolean isMine(int r, int c) {
+        return layout != null && test(layout.mines, word(r, c), c);
+    }
+
+    @Override
+    public int adjacentMines(int r, int c) {
+        if (layout == null) return 0;
+        int w = word(r, c);
+        if (test(layout.mines, w, c)) return -1;
+        return (int) ((layout.count0[w] >>> c) & 1
+                | ((layout.count1[w] >>> c) & 1) << 1
+                | ((layout.count2[w] >>> c) & 1) << 2
+                | ((layout.count3[w] >>> c) & 1) << 3);
+    }
+
+    @Override
+    public VisibleState visibleAt(int r, int c) {
+        int w = word(r, c);
+        if (test(revealed, w, c)) return VisibleState.REVEALED;
+        return test(flagged, w, c) ? VisibleState.FLAGGED : VisibleState.HIDDEN;
+    }
+
+    @Override
+    public boolean isLost() {
+        return lost;
+    }
+
+    @Override
+    public boolean isWon() {
+        return !lost && revealedCount == rows * cols - mines;
+    }
+
+    @Override
+    public int totalMines() {
+        return mines;
+    }
+
+    @Override
+    public int flaggedCount() {
+        return flaggedCount;
+    }
+
+    @Override
+    public int[] changedCells(Board previous) {
+        if (previous == this) return NO_CHANGES;
+        if (previous instanceof BitBoard other) {
+            if (other.version == version) return NO_CHANGES;
+            return ChangeLog.since(changes, other.version);
+        }
+        return null;
+    }
+
+    @Override
+    public Board reveal(int r, int c) {
+        if (!inBounds(r, c) || lost) return this;
+        if (!visibleAt(r, c).isHidden()) return this;
+        if (layout == null) return ensureLayout(r, c).reveal(r, c);
+        return revealSeeds(new int[]{r * cols + c}, 1);
+    }
+
+    @Override
+    public Board toggleFlag(int r, int c) {
+        if (!inBounds(r, c) || lost) return this;
+        int w = word(r, c);
+        if (test(revealed, w, c)) return this;
+        boolean wasFlagged = test(flagged, w, c);
+        long[] next = flagged.clone();
+        next[w] ^= 1L << c;
+        int nextFlagged = wasFlagged ? Math.max(0, flaggedCount - 1) : flaggedCount + 1;
+        return derive(revealed, next, lost, revealedCount, nextFlagged, new int[]{r * cols + c});
+    }
+
+    @Override
+    public Board chord(int r, int c) {
+        if (!inBounds(r, c) || lost || layout == null) return this;
+        if (!visibleAt(r, c).isRevealed()) return this;
+        int required = adjacentMines(r, c);
+        if (required <= 0) return this;
+
+        int flaggedAround = 0;
+        int[] hiddenNeighbors = new int[8];
+        int hiddenCount = 0;
+        for (int dr = -1; dr <= 1; dr++) {
+            for (int dc = -1; dc <= 1; dc++) {
+                if (dr == 0 && dc == 0) continue;
+                int nr = r + dr;
+                int nc = c + dc;
+                if (!inBounds(nr, nc)) continue;
+                VisibleState state = visibleAt(nr, nc);
+                if (state.isFlagged()) flaggedAround++;
+                else if (state.isHidden()) hiddenNeighbors[hiddenCount++] = nr * cols + nc;
+            }
+        }
+
+        if (flaggedAround != required) return this;
+        return revealSeeds(hiddenNeighbors, hiddenCount);
+    }
+
+    @Override
+    public Board revealAll(Collection<Cell> targets) {
+        Objects.requireNonNull(targets, "targets");
+        if (lost || targets.isEmpty()) return this;
+
+        int[] seeds = new int[targets.size()];
+        int count = 0;
+        for (Cell cell : targets) {
+            if (inBounds(cell.r(), cell.c())) seeds[count++] = cell.r() * cols + cell.c();
+        }
+        if (layout != null) return revealSeeds(seeds, count);
+
+        // the first target a plain reveal would act on decides the safe zone
+        for (int k = 0; k < count; k++) {
+            int i = seeds[k];
+            if (visibleAt(i / cols, i % cols).isHidden()) {
+                return ensureLayout(i / cols, i % cols).revealSeeds(seeds, count);
+            }
+        }
+        return this;
+    }
+
+    /** Same contract as {@code GridBoard.revealSeeds}. */
+    private BitBoard revealSeeds(int[] seeds, int count) {
+        int floodCount = 0;
+        boolean hitMine = false;
+        for (int k = 0; k < count; k++) {
+            int r = seeds[k] / cols, c = seeds[k] - r * cols;
+            if (!visibleAt(r, c).isHidden()) continue;
+            if (isMine(r, c)) {
+                hitMine = true;
+                break;
+            }
+            seeds[floodCount++] = seeds[k];
+        }
+        if (floodCount == 0 && !hitMine) return this;
+
+        long[] added = new long[revealed.length];
+        int floodRevealed = floodCount > 0 ? flood(seeds, floodCount, added) : 0;
+        long[] nextRevealed = revealed.clone();
+        for (int w = 0; w < added.length; w++) nextRevealed[w] |= added[w];
+        if (!hitMine) {
+            return derive(nextRevealed, flagged, false, revealedCount + floodRevealed, flaggedCount, indices(added));
+        }
+
+        // loss: every mine not yet revealed is revealed too, dropping its flag
+        long[] nextFlagged = flagged.clone();
+        int nextRevealedCount = revealedCount + floodRevealed;
+        int nextFlaggedCount = flaggedCount;
+        long[] mine = layout.mines;
+        for (int w = 0; w < added.length; w++) {
+            long newMines = mine[w] & ~nextRevealed[w];
+            if (newMines == 0) continue;
+            nextFlaggedCount -= Long.bitCount(newMines & nextFlagged[w]);
+            nextFlagged[w] &= ~newMines;
+            nextRevealed[w] |= newMines;
+            added[w] |= newMines;
+            nextRevealedCount += Long.bitCount(newMines);
+        }
+        return derive(nextRevealed, nextFlagged, true, nextRevealedCount, Math.max(0, nextFlaggedCount),
+                indices(added));
+    }
+
+    /**
+     * Reveals the seeds and the zero regions connected to them into {@code added}.
+     * Each dirty row fills its zero runs through the hidden, unflagged cells, then
+     * dilates them by one cell into itself and its neighbour rows; rows that gain
+     * zero cells become dirty in turn.
+     *
+     * @return number of cells revealed
+     */
+    private int flood(int[] seeds, int seedCount, long[] added) {
+        long[] zero = layout.zero;
+        int[] dirty = new int[Math.max(16, seedCount)];
+        boolean[] queued = new boolean[rows];
+        int dirtyCount = 0;
+        int count = 0;
+
+        for (int s = 0; s < seedCount; s++) {
+            int r = seeds[s] / cols, c = seeds[s] - r * cols;
+            int w = word(r, c);
+            long bit = 1L << c;
+            if ((revealed[w] & bit) != 0 || (flagged[w] & bit) != 0 || (added[w] & bit) != 0) continue;
+            added[w] |= bit;
+            count++;
+            if ((zero[w] & bit) != 0 && !queued[r]) {
+                if (dirtyCount == dirty.length) dirty = Arrays.copyOf(dirty, dirtyCount * 2);
+                dirty[dirtyCount++] = r;
+                queued[r] = true;
+            }
+        }
+
+        long[] run = new long[words];
+        long[] spread = new long[words];
+        while (dirtyCount > 0) {
+            int r = dirty[--dirtyCount];
+            queued[r] = false;
+            int base = r * words;
+
+            // zero runs holding a revealed zero, filled both ways through open zero cells
+            for (int w = 0; w < words; w++) run[w] = added[base + w] & zero[base + w];
+            fillRuns(run, base, zero);
+            dilateRow(run, spread);
+
+            for (int t = Math.max(0, r - 1); t <= Math.min(rows - 1, r + 1); t++) {
+                int tb = t * words;
+                boolean newZeros = false;
+                for (int w = 0; w < words; w++) {
+                    long open = ~revealed[tb + w] & ~flagged[tb + w] & colMask(w);
+                    long add = spread[w] & open & ~added[tb + w];
+                    if (add == 0) continue;
+                    added[tb + w] |= add;
+                    count += Long.bitCount(add);
+                    if ((add & zero[tb + w]) != 0) newZeros = true;
+                }
+                if (t != r && newZeros && !queued[t]) {
+                    if (dirtyCount == dirty.length) dirty = Arrays.copyOf(dirty, dirtyCount * 2);
+                    dirty[dirtyCount++] = t;
+                    queued[t] = true;
+                }
+            }
+        }
+        return count;
+    }
+
+    /** Extends each seed bit in {@code run} over its whole run of open zero cells in this row. */
+    private void fillRuns(long[] run, int base, long[] zero) {
+        // towards higher columns, carrying across words
+        long carry = 0;
+        for (int w = 0; w < words; w++) {
+            long open = zero[base + w] & ~revealed[base + w] & ~flagged[base + w];
+            long g = run[w] | (carry & open);
+            long p = open;
+            g |= p & (g << 1);  p &= p << 1;
+            g |= p & (g << 2);  p &= p << 2;
+            g |= p & (g << 4);  p &= p << 4;
+            g |= p & (g << 8);  p &= p << 8;
+            g |= p & (g << 16); p &= p << 16;
+            g |= p & (g << 32);
+            run[w] = g;
+            carry = g >>> 63;
+        }
+        // towards lower columns
+        carry = 0;
+        for (int w = words - 1; w >= 0; w--) {
+            long open = zero[base + w] & ~revealed[base + w] & ~flagged[base + w];
+            long g = run[w] | (carry & open);
+            long p = open;
+            g |= p & (g >>> 1);  p &= p >>> 1;
+            g |= p & (g >>> 2);  p &= p >>> 2;
+            g |= p & (g >>> 4);  p &= p >>> 4;
+            g |= p & (g >>> 8);  p &= p >>> 8;
+            g |= p & (g >>> 16); p &= p >>> 16;
+            g |= p & (g >>> 32);
+            run[w] = g;
+            carry = (g & 1) << 63;
+        }
+    }
+
+    /** {@code out} = the row's bits widened by one column each way. */
+    private void dilateRow(long[] row, long[] out) {
+        for (int w = 0; w < words; w++) {
+            long x = row[w];
+            long west = x << 1 | (w > 0 ? row[w - 1] >>> 63 : 0);
+            long east = x >>> 1 | (w + 1 < words ? row[w + 1] << 63 : 0);
+            out[w] = x | west | east;
+        }
+    }
+
+    /** Row-major indices of the set bits, in row-major order. */
+    private int[] indices(long[] plane) {
+        IntList out = new IntList();
+        for (int r = 0; r < rows; r++) {
+            int base = r * words;
+            for (int w = 0; w < words; w++) {
+                long bits = plane[base + w];
+                while (bits != 0) {
+                    out.add(r * cols + (w << 6) + Long.numberOfTrailingZeros(bits));
+                    bits &= bits - 1;
+                }
+            }
+        }
+        return out.toArray();
+    }
+
+    private BitBoard ensureLayout(int safeR, int safeC) {
+        Layout placed = Layout.of(placer.placeMineBits(rows, cols, mines, safeR, safeC), rows, cols, words, lastMask);
+        // placement changes nothing on screen, so the placed board keeps this board's version
+        return new BitBoard(rows, cols, mines, placer, placed, revealed, flagged, lost, revealedCount, flaggedCount,
+                version, changes);
+    }
+
+    /** Mine plane, bit-sliced neighbour counts and the zero plane, all immutable once built. */
+    private static final class Layout {
+        final long[] mines;
+        final long[] count0, count1, count2, count3; // bit k of the count
+        final long[] zero;                           // not a mine and no neighbouring mines
+
+        private Layout(long[] mines, long[] count0, long[] count1, long[] count2, long[] count3, long[] zero) {
+            this.mines = mines;
+            this.count0 = count0;
+            this.count1 = count1;
+            this.count2 = count2;
+            this.count3 = count3;
+            this.zero = zero;
+        }
+
+        static Layout of(long[] rowMajorMines, int rows, int cols, int words, long lastMask) {
+            int size = rows * words;
+            long[] mines = new long[size];
+            for (int r = 0; r < rows; r++) {
+                long start = (long) r * cols;
+                for (int w = 0; w < words; w++) {
+                    long from = start + ((long) w << 6);
+                    long bits = extract(rowMajorMines, from);
+                    mines[r * words + w] = bits & (w == words - 1 ? lastMask : -1L);
+                }
+            }
+
+            long[] c0 = new long[size], c1 = new long[size], c2 = new long[size], c3 = new long[size];
+            long[] zero = new long[size];
+            for (int r = 0; r < rows; r++) {
+                for (int w = 0; w < words; w++) {
+                    int i = r * words + w;
+                    long s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+                    for (int dr = -1; dr <= 1; dr++) {
+                        int nr = r + dr;
+                        if (nr < 0 || nr >= rows) continue;
+                        int b = nr * words;
+                        long x = mines[b + w];
+                        long west = x << 1 | (w > 0 ? mines[b + w - 1] >>> 63 : 0);
+                        long east = x >>> 1 | (w + 1 < words ? mines[b + w + 1] << 63 : 0);
+                        // bit-sliced add of the row's neighbour planes into s3..s0
+                        for (int k = 0; k < 3; k++) {
+                            if (dr == 0 && k == 1) continue; // the cell itself
+                            long a = k == 0 ? west : k == 1 ? x : east;
+                            long carry0 = s0 & a;
+                            s0 ^= a;
+                            long carry1 = s1 & carry0;
+                            s1 ^= carry0;
+                            long carry2 = s2 & carry1;
+                            s2 ^= carry1;
+                            s3 ^= carry2;
+                        }
+                    }
+                    long valid = w == words - 1 ? lastMask : -1L;
+                    c0[i] = s0 & valid;
+                    c1[i] = s1 & valid;
+                    c2[i] = s2 & valid;
+                    c3[i] = s3 & valid;
+                    zero[i] = ~(s0 | s1 | s2 | s3) & ~mines[i] & valid;
+                }
+            }
+            return new Layout(mines, c0, c1, c2, c3, zero);
+        }
+
+        /** 64 bits of a row-major bit set starting at bit {@code from}; bits past the end read as 0. */
+        private static long extract(long[] bits, long from) {
+            int word = (int) (from >>> 6);
+            int shift = (int) (from & 63);
+            long low = word < bits.length ? bits[word] >>> shift : 0;
+            if (shift == 0 || word + 1 >= bits.length) return low;
+            return low | bits[word + 1] << (64 - shift);
+        }
+    }
+}
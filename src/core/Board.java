@@ -1,5 +1,7 @@
 package core;
 
+import java.util.Collection;
+
 public interface Board {
     int rows();
     int cols();
@@ -17,4 +19,19 @@ public interface Board {
     Board reveal(int r, int c);     // lazy mine placement on first reveal
     Board toggleFlag(int r, int c); // flag/unflag
     Board chord(int r, int c);      // open neighbors if flags == number
+
+    // row-major indices (r * cols() + c) whose visible state differs from previous (an earlier
+    // version may add cells that changed back); null when unknown, so callers treat every cell as changed
+    default int[] changedCells(Board previous) {
+        return null;
+    }
+
+    // same result as revealing each cell in order; implementations may batch the work
+    default Board revealAll(Collection<Cell> cells) {
+        Board current = this;
+        for (Cell cell : cells) {
+            current = current.reveal(cell.r(), cell.c());
+        }
+        return current;
+    }
 }
@@ -0,0 +1,6 @@
+package core;
+
+/**
+ * Board coordinate used by batch operations such as {@link Board#revealAll}.
+ */
+public record Cell(int r, int c) { }
@@ -0,0 +1,203 @@
+package core;
+
+import java.util.Arrays;
+
+/**
+ * Persistent, chunked storage for every cell of a board.
+ * Cells are addressed by their row-major index and grouped into fixed-size
+ * leaf tiles hanging off a shallow trie of branch nodes. Updating a cell only
+ * copies the tile that holds it plus the branches on the path to the root, so
+ * older stores (and the boards holding them) stay valid and untouched.
+ *
+ * <p>Each cell is packed into a single byte: the low nibble holds the
+ * adjacent-mine count, bit 4 marks a mine and bits 5-6 hold the
+ * {@link VisibleState} ordinal.
+ */
+final class CellStore {
+    static final int COUNT_MASK = 0x0F;
+    static final int MINE = 0x10;
+    static final int LAYOUT_MASK = COUNT_MASK | MINE;
+    static final int STATE_SHIFT = 5;
+    static final int STATE_MASK = 0x3 << STATE_SHIFT;
+    static final int HIDDEN = VisibleState.HIDDEN.ordinal() << STATE_SHIFT;
+    static final int REVEALED = VisibleState.REVEALED.ordinal() << STATE_SHIFT;
+    static final int FLAGGED = VisibleState.FLAGGED.ordinal() << STATE_SHIFT;
+
+    static final int LEAF_BITS = 12;              // 4096 cells per tile
+    static final int LEAF_SIZE = 1 << LEAF_BITS;
+    static final int LEAF_MASK = LEAF_SIZE - 1;
+    private static final int BRANCH_BITS = 6;     // 64 children per branch
+    private static final int BRANCH_SIZE = 1 << BRANCH_BITS;
+    private static final int BRANCH_MASK = BRANCH_SIZE - 1;
+
+    private static final VisibleState[] STATES = VisibleState.values();
+
+    private final int size;
+    private final int shift; // shift of the root level; LEAF_BITS means the root is a leaf
+    private final Node root;
+
+    private CellStore(int size, int shift, Node root) {
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+    }
+
+    static CellStore filled(int size, byte cell) {
+        if (size <= 0) throw new IllegalArgumentException("Invalid size");
+        int shift = LEAF_BITS;
+        while ((1L << shift) < size) shift += BRANCH_BITS;
+        // small boards get a single tile sized to fit instead of a full 4096-cell one
+        return new CellStore(size, shift, build(shift, Math.min(size, LEAF_SIZE), cell));
+    }
+
+    /** Builds a fully shared tree: every tile and branch at the same depth is the same node. */
+    private static Node build(int shift, int leafLength, byte cell) {
+        if (shift == LEAF_BITS) {
+            byte[] cells = new byte[leafLength];
+            Arrays.fill(cells, cell);
+            return new Node(cells, null, null);
+        }
+        Node child = build(shift - BRANCH_BITS, leafLength, cell);
+        Node[] children = new Node[BRANCH_SIZE];
+        Arrays.fill(children, child);
+        return new Node(null, children, null);
+    }
+
+    static VisibleState stateOf(int cell) {
+        return STATES[(cell & STATE_MASK) >>> STATE_SHIFT];
+    }
+
+    static boolean isMine(int cell) {
+        return (cell & MINE) != 0;
+    }
+
+    static int countOf(int cell) {
+        return cell & COUNT_MASK;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int tileCount() {
+        return (size + LEAF_MASK) >>> LEAF_BITS;
+    }
+
+    byte get(int index) {
+        return leaf(root, shift, index).cells[index & LEAF_MASK];
+    }
+
+    /** Raw cells of one tile for sequential scans; callers must not modify the array. */
+    byte[] readTile(int tile) {
+        return leaf(root, shift, tile << LEAF_BITS).cells;
+    }
+
+    CellStore with(int index, byte cell) {
+        if (get(index) == cell) return this;
+        Editor editor = edit();
+        editor.set(index, cell);
+        return editor.freeze();
+    }
+
+    /** Copy with every cell's layout bits taken from a row-major array; visible state is kept. */
+    CellStore withLayout(byte[] layout) {
+        Editor editor = edit();
+        for (int t = 0, tiles = tileCount(); t < tiles; t++) {
+            byte[] tile = editor.writableTile(t);
+            int base = t << LEAF_BITS;
+            int length = Math.min(tile.length, size - base);
+            for (int k = 0; k < length; k++) {
+                tile[k] = (byte) ((tile[k] & STATE_MASK) | layout[base + k]);
+            }
+        }
+        return editor.freeze();
+    }
+
+    /** Starts a batch of updates; each touched tile is copied at most once. */
+    Editor edit() {
+        return new Editor(this);
+    }
+
+    private static Node leaf(Node root, int shift, int index) {
+        Node node = root;
+        for (int s = shift; s > LEAF_BITS; s -= BRANCH_BITS) {
+            node = node.children[index >>> (s - BRANCH_BITS) & BRANCH_MASK];
+        }
+        return node;
+    }
+
+    private static final class Node {
+        final byte[] cells;      // leaf payload, null for branches
+        final Node[] children;   // branch payload, null for leaves
+        final Object owner;      // editor allowed to mutate this node in place
+
+        Node(byte[] cells, Node[] children, Object owner) {
+            this.cells = cells;
+            this.children = children;
+            this.owner = owner;
+        }
+
+        Node copyFor(Object newOwner) {
+            return cells != null
+                    ? new Node(cells.clone(), null, newOwner)
+                    : new Node(null, children.clone(), newOwner);
+        }
+    }
+
+    /**
+     * Transient view over a store. Writes copy nodes on first touch and then
+     * mutate the private copies in place until {@link #freeze()} publishes them.
+     */
+    static final class Editor {
+        private final int size;
+        private final int shift;
+        private Object token = new Object();
+        private Node root;
+        private final byte[][] owned; // tiles already copied by this editor, indexed by tile number
+
+        private Editor(CellStore base) {
+            this.size = base.size;
+            this.shift = base.shift;
+            this.root = base.root;
+            this.owned = new byte[base.tileCount()][];
+        }
+
+        byte get(int index) {
+            byte[] tile = owned[index >>> LEAF_BITS];
+            if (tile != null) return tile[index & LEAF_MASK];
+            return leaf(root, shift, index).cells[index & LEAF_MASK];
+        }
+
+        void set(int index, byte cell) {
+            writableTile(index >>> LEAF_BITS)[index & LEAF_MASK] = cell;
+        }
+
+        /** Private copy of one tile that may be written directly until the editor is frozen. */
+        byte[] writableTile(int tile) {
+            if (token == null) throw new IllegalStateException("Editor already frozen");
+            byte[] cached = owned[tile];
+            if (cached != null) return cached;
+            int index = tile << LEAF_BITS;
+            root = editable(root);
+            Node node = root;
+            for (int s = shift; s > LEAF_BITS; s -= BRANCH_BITS) {
+                int slot = index >>> (s - BRANCH_BITS) & BRANCH_MASK;
+                Node child = editable(node.children[slot]);
+                node.children[slot] = child;
+                node = child;
+            }
+            owned[tile] = node.cells;
+            return node.cells;
+        }
+
+        private Node editable(Node node) {
+            return node.owner == token ? node : node.copyFor(token);
+        }
+
+        CellStore freeze() {
+            token = null;
+            Arrays.fill(owned, null);
+            return new CellStore(size, shift, root);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package core;
+
+import java.util.Arrays;
+
+/**
+ * The cells a board changed since its parent version, linked to the parent's
+ * own log, so {@link Board#changedCells} can answer for an older position
+ * the caller skipped ahead of. The chain is trimmed to {@link #MAX_STEPS}
+ * moves and to as many cells as the board has: past that a caller scanning
+ * the whole board is no slower, and old diffs are not kept alive forever.
+ * Immutable; the boards of one game share the links.
+ */
+final class ChangeLog {
+    private static final int MAX_STEPS = 32;
+
+    private final long from;         // version the cells are relative to
+    private final int[] cells;       // row-major, in the order the move changed them
+    private final ChangeLog earlier; // log of the version 'from', or null when dropped
+
+    private ChangeLog(long from, int[] cells, ChangeLog earlier) {
+        this.from = from;
+        this.cells = cells;
+        this.earlier = earlier;
+    }
+
+    /** Log of a board derived from version {@code from} (whose log is {@code earlier}) by changing {@code cells}. */
+    static ChangeLog after(ChangeLog earlier, long from, int[] cells, int boardSize) {
+        return new ChangeLog(from, cells, trim(earlier, MAX_STEPS - 1, (long) boardSize - cells.length));
+    }
+
+    private static ChangeLog trim(ChangeLog log, int steps, long budget) {
+        if (log == null || steps == 0 || log.cells.length > budget) return null;
+        ChangeLog rest = trim(log.earlier, steps - 1, budget - log.cells.length);
+        return rest == log.earlier ? log : new ChangeLog(log.from, log.cells, rest);
+    }
+
+    /**
+     * Cells changed since {@code version}, or null when it is not among the
+     * logged ancestors. Across several moves the cells come sorted and may
+     * include a few that changed back, such as a flag set and cleared again.
+     */
+    static int[] since(ChangeLog log, long version) {
+        if (log == null) return null;
+        if (log.from == version) return log.cells.clone();
+        int total = 0;
+        for (ChangeLog step = log; step != null; step = step.earlier) {
+            total += step.cells.length;
+            if (step.from != version) continue;
+            int[] merged = new int[total];
+            int n = 0;
+            for (ChangeLog s = log; s != step.earlier; s = s.earlier) {
+                System.arraycopy(s.cells, 0, merged, n, s.cells.length);
+                n += s.cells.length;
+            }
+            Arrays.sort(merged);
+            int unique = 0;
+            for (int k = 0; k < merged.length; k++) {
+                if (unique == 0 || merged[k] != merged[unique - 1]) merged[unique++] = merged[k];
+            }
+            return Arrays.copyOf(merged, unique);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,585 @@
+package core;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Board over lazily generated 64x64 chunks, for grids far beyond what
+ * {@link GridBoard} can index (up to {@code Integer.MAX_VALUE} rows and
+ * columns). Each chunk's mines come from the seed and the chunk coordinates
+ * alone, plus the safe zone around the first click, so any chunk can be
+ * generated, dropped and regenerated on its own. Chunks that were only looked
+ * at live in an LRU cache shared by every version of the game; chunks a move
+ * has touched are kept by the board versions that own them. Memory therefore
+ * follows the explored area, not the nominal size.
+ *
+ * <p>Unlike {@link GridBoard}, a loss reveals only the mine that was hit;
+ * the other mines still report {@link #isMine} so views can show them.
+ * {@link #changedCells} is always unknown because row-major indices of a
+ * grid this size do not fit in an int.
+ */
+public final class ChunkedBoard implements Board {
+    static final int CHUNK_BITS = 6;
+    static final int CHUNK = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK - 1;
+    private static final int CACHED_CHUNKS = 1024; // ~4 MB of generated but untouched chunks
+    // below roughly this density zero regions percolate, and one click could flood without end
+    private static final double MIN_DENSITY = 0.1;
+    private static final byte[] UNPLACED = new byte[CHUNK * CHUNK];
+
+    private final int rows;
+    private final int cols;
+    private final double density;
+    private final long seed;
+    private final long totalMines;
+    private final Layouts layouts;   // null until the first reveal fixes the safe zone
+    private final ChunkTable touched; // chunks with any visible state: packed layout + state bytes
+    private final boolean lost;
+    private final long revealedCount;
+    private final int flaggedCount;
+    private volatile Chunk lastRead;  // most reads hit the same chunk as the one before
+
+    public ChunkedBoard(int rows, int cols, double density, long seed) {
+        this(rows, cols, density, seed, null, new ChunkTable(), false, 0, 0);
+    }
+
+    /** The largest board this class supports, for "endless" play. */
+    public static ChunkedBoard unbounded(double density, long seed) {
+        return new ChunkedBoard(Integer.MAX_VALUE, Integer.MAX_VALUE, density, seed);
+    }
+
+    private ChunkedBoard(int rows, int cols, double density, long seed, Layouts layouts, ChunkTable touched,
+                         boolean lost, long revealedCount, int flaggedCount) {
+        if (rows <= 0 || cols <= 0) throw new IllegalArgumentException("Invalid size");
+        if (!(density >= MIN_DENSITY && density < 1)) throw new IllegalArgumentException("Invalid mine density");
+        this.rows = rows;
+        this.cols = cols;
+        this.density = density;
+        this.seed = seed;
+        this.totalMines = countMines(rows, cols, density);
+        this.layouts = layouts;
+        this.touched = touched;
+        this.lost = lost;
+        this.revealedCount = revealedCount;
+        this.flaggedCount = flaggedCount;
+    }
+
+    private ChunkedBoard derive(ChunkTable next, boolean nextLost, long nextRevealed, int nextFlagged) {
+        return new ChunkedBoard(rows, cols, density, seed, layouts, next, nextLost, nextRevealed, nextFlagged);
+    }
+
+    private static int minesIn(int h, int w, double density) {
+        return Math.min((int) Math.round(density * h * w), h * w - 1);
+    }
+
+    private static long countMines(int rows, int cols, double density) {
+        long fullRows = rows >>> CHUNK_BITS, fullCols = cols >>> CHUNK_BITS;
+        int restRows = rows & CHUNK_MASK, restCols = cols & CHUNK_MASK;
+        long total = fullRows * fullCols * minesIn(CHUNK, CHUNK, density);
+        if (restCols > 0) total += fullRows * minesIn(CHUNK, restCols, density);
+        if (restRows > 0) total += fullCols * minesIn(restRows, CHUNK, density);
+        if (restRows > 0 && restCols > 0) total += minesIn(restRows, restCols, density);
+        return total;
+    }
+
+    private static long key(int r, int c) {
+        return (long) (r >>> CHUNK_BITS) << 32 | (c >>> CHUNK_BITS);
+    }
+
+    private static int local(int r, int c) {
+        return (r & CHUNK_MASK) << CHUNK_BITS | (c & CHUNK_MASK);
+    }
+
+    private static long pack(int r, int c) {
+        return (long) r << 32 | c;
+    }
+
+    private static byte withState(byte cell, int state) {
+        return (byte) ((cell & ~CellStore.STATE_MASK) | state);
+    }
+
+    private byte cell(int r, int c) {
+        long key = key(r, c);
+        Chunk last = lastRead;
+        byte[] cells;
+        if (last != null && last.key == key) {
+            cells = last.cells;
+        } else {
+            cells = chunk(key);
+            lastRead = new Chunk(key, cells);
+        }
+        return cells[local(r, c)];
+    }
+
+    /** Cells of one chunk; callers must not modify the array. */
+    private byte[] chunk(long key) {
+        byte[] cells = touched.get(key);
+        if (cells != null) return cells;
+        return layouts == null ? UNPLACED : layouts.get(key);
+    }
+
+    @Override
+    public int rows() {
+        return rows;
+    }
+
+    @Override
+    public int cols() {
+        return cols;
+    }
+
+    @Override
+    public boolean inBounds(int r, int c) {
+        return r >= 0 && r < rows && c >= 0 && c < cols;
+    }
+
+    @Override
+    public boolean isMine(int r, int c) {
+        return CellStore.isMine(cell(r, c));
+    }
+
+    @Override
+    public int adjacentMines(int r, int c) {
+        byte cell = cell(r, c);
+        return CellStore.isMine(cell) ? -1 : CellStore.countOf(cell);
+    }
+
+    @Override
+    public VisibleState visibleAt(int r, int c) {
+        return CellStore.stateOf(cell(r, c));
+    }
+
+    @Override
+    public boolean isLost() {
+        return lost;
+    }
+
+    @Override
+    public boolean isWon() {
+        return !lost && revealedCount == (long) rows * cols - totalMines;
+    }
+
+    /** Capped at {@code Integer.MAX_VALUE} for boards holding more mines than that. */
+    @Override
+    public int totalMines() {
+        return (int) Math.min(Integer.MAX_VALUE, totalMines);
+    }
+
+    @Override
+    public int flaggedCount() {
+        return flaggedCount;
+    }
+
+    /** Chunks this board holds visible state for; the rest can be regenerated at any time. */
+    public int touchedChunks() {
+        return touched.size();
+    }
+
+    @Override
+    public Board reveal(int r, int c) {
+        if (!inBounds(r, c) || lost) return this;
+        if (!visibleAt(r, c).isHidden()) return this;
+        if (layouts == null) return place(r, c).reveal(r, c);
+        return revealSeeds(new long[]{pack(r, c)}, 1);
+    }
+
+    @Override
+    public Board toggleFlag(int r, int c) {
+        if (!inBounds(r, c) || lost) return this;
+        byte cell = cell(r, c);
+        VisibleState current = CellStore.stateOf(cell);
+        if (current.isRevealed()) return this;
+
+        Editor next = new Editor();
+        int nextFlagged;
+        if (current.isFlagged()) {
+            next.set(r, c, withState(cell, CellStore.HIDDEN));
+            nextFlagged = Math.max(0, flaggedCount - 1);
+        } else {
+            next.set(r, c, withState(cell, CellStore.FLAGGED));
+            nextFlagged = flaggedCount + 1;
+        }
+        return derive(next.freeze(), lost, revealedCount, nextFlagged);
+    }
+
+    @Override
+    public Board chord(int r, int c) {
+        if (!inBounds(r, c) || lost || layouts == null) return this;
+        if (!visibleAt(r, c).isRevealed()) return this;
+        int required = adjacentMines(r, c);
+        if (required <= 0) return this;
+
+        int flaggedAround = 0;
+        long[] hiddenNeighbors = new long[8];
+        int hiddenCount = 0;
+        for (int dr = -1; dr <= 1; dr++) {
+            for (int dc = -1; dc <= 1; dc++) {
+                if (dr == 0 && dc == 0) continue;
+                int nr = r + dr;
+                int nc = c + dc;
+                if (!inBounds(nr, nc)) continue;
+                VisibleState state = visibleAt(nr, nc);
+                if (state.isFlagged()) flaggedAround++;
+                else if (state.isHidden()) hiddenNeighbors[hiddenCount++] = pack(nr, nc);
+            }
+        }
+
+        if (flaggedAround != required) return this;
+        return revealSeeds(hiddenNeighbors, hiddenCount);
+    }
+
+    /** Same rules as {@code GridBoard.revealSeeds}: seeds up to the first mine flood together, a mine loses. */
+    private ChunkedBoard revealSeeds(long[] seeds, int count) {
+        int floodCount = 0;
+        long mine = -1;
+        for (int k = 0; k < count; k++) {
+            byte cell = cell((int) (seeds[k] >>> 32), (int) seeds[k]);
+            if ((cell & CellStore.STATE_MASK) != CellStore.HIDDEN) continue;
+            if (CellStore.isMine(cell)) {
+                mine = seeds[k];
+                break;
+            }
+            seeds[floodCount++] = seeds[k];
+        }
+        if (floodCount == 0 && mine < 0) return this;
+
+        Editor next = new Editor();
+        long nextRevealed = revealedCount + flood(next, seeds, floodCount);
+        if (mine < 0) return derive(next.freeze(), false, nextRevealed, flaggedCount);
+        int r = (int) (mine >>> 32), c = (int) mine;
+        next.set(r, c, withState(cell(r, c), CellStore.REVEALED));
+        return derive(next.freeze(), true, nextRevealed + 1, flaggedCount);
+    }
+
+    /** Breadth-first zero-region reveal, as in {@link FloodFill} but over chunk coordinates. */
+    private long flood(Editor cells, long[] seeds, int seedCount) {
+        long[] queue = new long[Math.max(64, seedCount)];
+        int head = 0;
+        int tail = 0;
+        long revealed = 0;
+
+        for (int s = 0; s < seedCount; s++) {
+            int r = (int) (seeds[s] >>> 32), c = (int) seeds[s];
+            byte cell = cells.get(r, c);
+            if ((cell & CellStore.STATE_MASK) != CellStore.HIDDEN) continue;
+            cells.set(r, c, withState(cell, CellStore.REVEALED));
+            revealed++;
+            if ((cell & CellStore.LAYOUT_MASK) == 0) queue[tail++] = seeds[s];
+        }
+
+        while (head < tail) {
+            long p = queue[head++];
+            int r = (int) (p >>> 32), c = (int) p;
+            int r0 = r > 0 ? r - 1 : r;
+            int r1 = r + 1 < rows ? r + 1 : r;
+            int c0 = c > 0 ? c - 1 : c;
+            int c1 = c + 1 < cols ? c + 1 : c;
+            for (int nr = r0; nr <= r1; nr++) {
+                for (int nc = c0; nc <= c1; nc++) {
+                    // read through the shared chunk; only cells that change get it copied
+                    byte cell = cells.get(nr, nc);
+                    if ((cell & CellStore.STATE_MASK) != CellStore.HIDDEN) continue;
+                    cells.set(nr, nc, withState(cell, CellStore.REVEALED));
+                    revealed++;
+                    if ((cell & CellStore.LAYOUT_MASK) != 0) continue;
+                    if (tail == queue.length) {
+                        if (head > queue.length / 2) {
+                            System.arraycopy(queue, head, queue, 0, tail - head);
+                            tail -= head;
+                            head = 0;
+                        } else {
+                            queue = Arrays.copyOf(queue, queue.length * 2);
+                        }
+                    }
+                    queue[tail++] = pack(nr, nc);
+                }
+            }
+        }
+        return revealed;
+    }
+
+    /** Fixes the layout around the first click, folding it into chunks that already hold flags. */
+    private ChunkedBoard place(int safeR, int safeC) {
+        Layouts placed = new Layouts(rows, cols, density, seed, safeR, safeC);
+        ChunkTable.Editor next = new ChunkTable().edit();
+        touched.forEach((key, state) -> {
+            byte[] merged = placed.get(key).clone();
+            for (int i = 0; i < merged.length; i++) merged[i] |= (byte) (state[i] & CellStore.STATE_MASK);
+            next.put(key, merged);
+        });
+        return new ChunkedBoard(rows, cols, density, seed, placed, next.freeze(), lost, revealedCount, flaggedCount);
+    }
+
+    private record Chunk(long key, byte[] cells) { }
+
+    /** Copy-on-write access for one move: each chunk is copied at most once. */
+    private final class Editor {
+        private final ChunkTable.Editor table = touched.edit();
+        private long lastKey = -1;
+        private byte[] last;
+        private boolean lastWritable;
+
+        /** Current cells of one chunk; nothing is copied. */
+        byte[] read(long key) {
+            if (key == lastKey) return last;
+            byte[] cells = table.get(key);
+            if (cells == null) cells = layouts == null ? UNPLACED : layouts.get(key);
+            lastKey = key;
+            last = cells;
+            lastWritable = false;
+            return cells;
+        }
+
+        byte[] writable(long key) {
+            if (key == lastKey && lastWritable) return last;
+            byte[] cells = table.owned(key);
+            if (cells == null) {
+                cells = read(key).clone();
+                table.put(key, cells);
+            }
+            lastKey = key;
+            last = cells;
+            lastWritable = true;
+            return cells;
+        }
+
+        byte get(int r, int c) {
+            return read(key(r, c))[local(r, c)];
+        }
+
+        void set(int r, int c, byte cell) {
+            writable(key(r, c))[local(r, c)] = cell;
+        }
+
+        ChunkTable freeze() {
+            return table.freeze();
+        }
+    }
+
+    /**
+     * Persistent map from chunk key to cells, a hash trie in the style of
+     * {@link CellStore}: a put copies only the branches on the path to its
+     * entry, so every board version shares the rest. The key hash is a
+     * bijection, so distinct keys always part ways within 16 levels.
+     */
+    static final class ChunkTable {
+        private static final int BITS = 4;
+        private static final int WIDTH = 1 << BITS;
+        private static final int MASK = WIDTH - 1;
+
+        private final Object root; // null, an Entry or a Branch
+        private final int size;
+
+        ChunkTable() {
+            this(null, 0);
+        }
+
+        private ChunkTable(Object root, int size) {
+            this.root = root;
+            this.size = size;
+        }
+
+        int size() {
+            return size;
+        }
+
+        byte[] get(long key) {
+            return find(root, key);
+        }
+
+        /** Starts a batch of puts; each branch on their paths is copied at most once. */
+        Editor edit() {
+            return new Editor(this);
+        }
+
+        void forEach(Visitor visitor) {
+            visit(root, visitor);
+        }
+
+        interface Visitor {
+            void visit(long key, byte[] cells);
+        }
+
+        private static void visit(Object node, Visitor visitor) {
+            if (node instanceof Entry e) {
+                visitor.visit(e.key, e.cells);
+            } else if (node instanceof Branch b) {
+                for (Object child : b.slots) visit(child, visitor);
+            }
+        }
+
+        private static Entry entry(Object node, long key) {
+            long h = hash(key);
+            for (int shift = 0; ; shift += BITS) {
+                if (node instanceof Branch b) {
+                    node = b.slots[(int) (h >>> shift) & MASK];
+                } else {
+                    return node instanceof Entry e && e.key == key ? e : null;
+                }
+            }
+        }
+
+        private static byte[] find(Object node, long key) {
+            Entry e = entry(node, key);
+            return e == null ? null : e.cells;
+        }
+
+        private static long hash(long key) {
+            return SeededMinePlacer.mix(0, key);
+        }
+
+        private record Entry(long key, byte[] cells, Object owner) { }
+
+        private static final class Branch {
+            final Object[] slots;
+            final Object owner; // editor allowed to mutate this branch in place
+
+            Branch(Object[] slots, Object owner) {
+                this.slots = slots;
+                this.owner = owner;
+            }
+        }
+
+        /** Transient view over a table; branches it copied are then changed in place until frozen. */
+        static final class Editor {
+            private Object token = new Object();
+            private Object root;
+            private int size;
+
+            private Editor(ChunkTable base) {
+                this.root = base.root;
+                this.size = base.size;
+            }
+
+            byte[] get(long key) {
+                return find(root, key);
+            }
+
+            /** Cells this editor put for the key, which it may write to; null if still shared. */
+            byte[] owned(long key) {
+                Entry e = entry(root, key);
+                return e != null && e.owner == token ? e.cells : null;
+            }
+
+            void put(long key, byte[] cells) {
+                if (token == null) throw new IllegalStateException("Editor already frozen");
+                root = put(root, 0, key, hash(key), new Entry(key, cells, token));
+            }
+
+            private Object put(Object node, int shift, long key, long h, Entry entry) {
+                if (node == null) {
+                    size++;
+                    return entry;
+                }
+                if (node instanceof Entry e) {
+                    if (e.key == key) return entry;
+                    // split: the old entry moves one level down, then the new one goes in beside it
+                    Object[] slots = new Object[WIDTH];
+                    slots[(int) (hash(e.key) >>> shift) & MASK] = e;
+                    node = new Branch(slots, token);
+                }
+                Branch b = (Branch) node;
+                if (b.owner != token) b = new Branch(b.slots.clone(), token);
+                int i = (int) (h >>> shift) & MASK;
+                b.slots[i] = put(b.slots[i], shift + BITS, key, h, entry);
+                return b;
+            }
+
+            ChunkTable freeze() {
+                token = null;
+                return new ChunkTable(root, size);
+            }
+        }
+    }
+
+    /**
+     * Generated layout bytes (mine bit or neighbour count) per chunk, shared by
+     * every version of one game. Least recently used chunks are dropped first.
+     */
+    private static final class Layouts {
+        private final int rows, cols;
+        private final double density;
+        private final long seed;
+        private final int safeR, safeC;
+        private final Map<Long, byte[]> cache = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, byte[]> eldest) {
+                return size() > CACHED_CHUNKS;
+            }
+        };
+
+        Layouts(int rows, int cols, double density, long seed, int safeR, int safeC) {
+            this.rows = rows;
+            this.cols = cols;
+            this.density = density;
+            this.seed = seed;
+            this.safeR = safeR;
+            this.safeC = safeC;
+        }
+
+        synchronized byte[] get(long key) {
+            byte[] layout = cache.get(key);
+            if (layout == null) {
+                layout = generate((int) (key >>> 32), (int) key);
+                cache.put(key, layout);
+            }
+            return layout;
+        }
+
+        private int height(int chunkRow) {
+            return Math.min(CHUNK, rows - (chunkRow << CHUNK_BITS));
+        }
+
+        private int width(int chunkCol) {
+            return Math.min(CHUNK, cols - (chunkCol << CHUNK_BITS));
+        }
+
+        /** Mines of one chunk as a local row-major bit set (stride = chunk width). */
+        private long[] mineBits(int chunkRow, int chunkCol) {
+            int h = height(chunkRow), w = width(chunkCol);
+            SplittableRandom rng = new SplittableRandom(SeededMinePlacer.mix(SeededMinePlacer.mix(seed, chunkRow), chunkCol));
+            // the safe zone only excludes cells in the chunks it overlaps; elsewhere it lies out of range
+            return RandomMinePlacer.sample(rng, h, w, minesIn(h, w, density),
+                    safeR - (chunkRow << CHUNK_BITS), safeC - (chunkCol << CHUNK_BITS));
+        }
+
+        /** Counts for one chunk from its own mines and the bordering cells of its eight neighbours. */
+        private byte[] generate(int chunkRow, int chunkCol) {
+            int r0 = chunkRow << CHUNK_BITS, c0 = chunkCol << CHUNK_BITS;
+            int h = height(chunkRow), w = width(chunkCol);
+            int ph = h + 2, pw = w + 2; // one-cell frame around the chunk
+            long[] padded = new long[(ph * pw + 63) >>> 6];
+            int lastChunkRow = (rows - 1) >>> CHUNK_BITS, lastChunkCol = (cols - 1) >>> CHUNK_BITS;
+
+            for (int ncr = chunkRow - 1; ncr <= chunkRow + 1; ncr++) {
+                if (ncr < 0 || ncr > lastChunkRow) continue;
+                for (int ncc = chunkCol - 1; ncc <= chunkCol + 1; ncc++) {
+                    if (ncc < 0 || ncc > lastChunkCol) continue;
+                    long[] bits = mineBits(ncr, ncc);
+                    int nr0 = ncr << CHUNK_BITS, nc0 = ncc << CHUNK_BITS;
+                    int nh = height(ncr), nw = width(ncc);
+                    // neighbour cells inside the frame, in global coordinates
+                    int fromR = Math.max(nr0, r0 - 1), toR = Math.min(nr0 + nh - 1, r0 + h);
+                    int fromC = Math.max(nc0, c0 - 1), toC = Math.min(nc0 + nw - 1, c0 + w);
+                    for (int r = fromR; r <= toR; r++) {
+                        for (int c = fromC; c <= toC; c++) {
+                            int i = (r - nr0) * nw + (c - nc0);
+                            if ((bits[i >>> 6] & (1L << i)) == 0) continue;
+                            int p = (r - r0 + 1) * pw + (c - c0 + 1);
+                            padded[p >>> 6] |= 1L << p;
+                        }
+                    }
+                }
+            }
+
+            byte[] counts = AdjacencyCounter.count(padded, ph, pw);
+            byte[] layout = new byte[CHUNK * CHUNK];
+            for (int lr = 0; lr < h; lr++) {
+                System.arraycopy(counts, (lr + 1) * pw + 1, layout, lr << CHUNK_BITS, w);
+            }
+            return layout;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package core;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Breadth-first zero-region reveal over packed cells.
+ * Cells are queued as row-major ints and flipped to revealed as soon as they
+ * are discovered, so the state bits double as the visited set and every
+ * cell enters the queue at most once. Only zero cells are queued because
+ * numbered cells never spread the reveal further.
+ */
+final class FloodFill {
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int PARALLEL_MIN_CELLS = 1 << 20;  // smaller boards always stay sequential
+    private static final int PARALLEL_HANDOFF = 1 << 16;    // cells revealed before a flood counts as huge
+
+    private FloodFill() { }
+
+    /**
+     * Reveals {@code start} and the zero region connected to it.
+     * The start cell must be hidden and not a mine.
+     *
+     * @return number of cells switched to revealed
+     */
+    static int reveal(CellStore.Editor cells, int rows, int cols, int start, IntList revealedOut) {
+        return reveal(cells, rows, cols, new int[]{start}, 1, revealedOut);
+    }
+
+    /**
+     * Multi-source variant: reveals every hidden seed and floods all their
+     * zero regions with a single queue, so overlapping regions are walked once.
+     * Seeds must not be mines; seeds that are no longer hidden are skipped.
+     * Every revealed cell is appended to {@code revealedOut} in BFS order.
+     * On large boards a flood that keeps growing past {@link #PARALLEL_HANDOFF}
+     * cells hands its frontier to {@link ParallelFloodFill}; the revealed set is
+     * the same, the rest of the log follows that class's deterministic order.
+     *
+     * @return number of cells switched to revealed
+     */
+    static int reveal(CellStore.Editor cells, int rows, int cols, int[] seeds, int seedCount, IntList revealedOut) {
+        boolean mayGoParallel = (long) rows * cols >= PARALLEL_MIN_CELLS
+                && ForkJoinPool.getCommonPoolParallelism() > 1;
+        return reveal(cells, rows, cols, seeds, seedCount, revealedOut,
+                mayGoParallel ? PARALLEL_HANDOFF : Integer.MAX_VALUE);
+    }
+
+    /**
+     * {@link #reveal(CellStore.Editor, int, int, int[], int, IntList)} handing
+     * off after {@code handoff} revealed cells whatever the board size; tests
+     * use it to reach {@link ParallelFloodFill} on small boards and one core.
+     */
+    static int reveal(CellStore.Editor cells, int rows, int cols, int[] seeds, int seedCount, IntList revealedOut,
+                      int handoff) {
+        int[] queue = new int[Math.max(INITIAL_CAPACITY, seedCount)];
+        int head = 0;
+        int tail = 0;
+        int revealed = 0;
+
+        for (int s = 0; s < seedCount; s++) {
+            int start = seeds[s];
+            byte first = cells.get(start);
+            if ((first & CellStore.STATE_MASK) != CellStore.HIDDEN) continue;
+            cells.set(start, revealed(first));
+            revealedOut.add(start);
+            revealed++;
+            if ((first & CellStore.LAYOUT_MASK) == 0) queue[tail++] = start;
+        }
+
+        while (head < tail) {
+            if (revealed >= handoff) {
+                return revealed + ParallelFloodFill.expand(cells, rows, cols, queue, head, tail, revealedOut);
+            }
+            int i = queue[head++];
+            int r = i / cols;
+            int c = i - r * cols;
+            int r0 = r > 0 ? r - 1 : r;
+            int r1 = r + 1 < rows ? r + 1 : r;
+            int c0 = c > 0 ? c - 1 : c;
+            int c1 = c + 1 < cols ? c + 1 : c;
+            for (int nr = r0; nr <= r1; nr++) {
+                int rowBase = nr * cols;
+                for (int nc = c0; nc <= c1; nc++) {
+                    int j = rowBase + nc;
+                    byte cell = cells.get(j); // read first: only a changing cell may copy its tile
+                    if ((cell & CellStore.STATE_MASK) != CellStore.HIDDEN) continue;
+                    cells.set(j, revealed(cell));
+                    revealedOut.add(j);
+                    revealed++;
+                    if ((cell & CellStore.LAYOUT_MASK) != 0) continue;
+                    if (tail == queue.length) {
+                        // reclaim the consumed prefix before growing
+                        if (head > queue.length / 2) {
+                            System.arraycopy(queue, head, queue, 0, tail - head);
+                            tail -= head;
+                            head = 0;
+                        } else {
+                            queue = Arrays.copyOf(queue, queue.length * 2);
+                        }
+                    }
+                    queue[tail++] = j;
+                }
+            }
+        }
+        return revealed;
+    }
+
+    private static byte revealed(byte cell) {
+        return (byte) ((cell & ~CellStore.STATE_MASK) | CellStore.REVEALED);
+    }
+}
@@ -0,0 +1,313 @@
+package core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The numbered edge of a board, kept in step with successive board versions.
+ * Every revealed cell with unrevealed neighbours is a {@link Constraint}: its
+ * number of mines lies among those neighbours. Constraints that share an
+ * unrevealed cell, directly or through others, form a {@link Component}; the
+ * components are independent of each other and can be solved separately.
+ * <p>
+ * {@link #update} uses {@link Board#changedCells} to look only at the cells a
+ * move touched and rebuilds only the components those cells belong to, so the
+ * cost of a move follows its size, not the board's. Cells a solver has proven
+ * are handed back through {@link #settle}; they leave the constraints for good
+ * (proven mines are subtracted from the counts), so components only ever hold
+ * undecided cells and stay small however far the opened area reaches. Flags
+ * are not trusted: flagged cells count as unrevealed like hidden ones. State
+ * is kept in arrays and bit sets indexed by cell, so nothing is boxed. Not
+ * thread-safe.
+ */
+final class Frontier {
+    /** A revealed cell: exactly {@code mines} of {@code vars} (row-major, sorted) are mines. */
+    record Constraint(int cell, int[] vars, int mines) {
+        boolean sameAs(Constraint other) {
+            return other != null && mines == other.mines && Arrays.equals(vars, other.vars);
+        }
+    }
+
+    /** Constraints linked by shared unrevealed cells, and the union of their cells. */
+    static final class Component {
+        final List<Constraint> constraints;
+        final int[] vars; // sorted
+
+        Component(List<Constraint> constraints, int[] vars) {
+            this.constraints = constraints;
+            this.vars = vars;
+        }
+    }
+
+    /** Components dropped and created by one {@link #update}. */
+    record Change(List<Component> removed, List<Component> added) { }
+
+    private Constraint[] constraints = new Constraint[0];  // by cell, null where there is none
+    private Component[] componentOf = new Component[0];   // by constraint cell
+    private final BitSet knownSafe = new BitSet();        // proven, not yet revealed
+    private final BitSet knownMines = new BitSet();
+    private int knownSafeCount, knownMineCount;
+    private final Set<Component> components = new HashSet<>();
+    private int[] mark = new int[0]; // cells seen in the current walk: mark[i] == epoch
+    private int epoch;
+    private Board board;
+    private int rows, cols;
+    private int revealed;
+
+    Board board() {
+        return board;
+    }
+
+    int cols() {
+        return cols;
+    }
+
+    int rows() {
+        return rows;
+    }
+
+    /** Revealed cells on the current board. */
+    int revealed() {
+        return revealed;
+    }
+
+    /** Current components; they keep their identity until a move changes them. */
+    Set<Component> components() {
+        return components;
+    }
+
+    /** Proven safe cells that are still unrevealed, in row-major order. */
+    int[] knownSafe() {
+        return knownSafe.stream().toArray();
+    }
+
+    /** Proven mines, in row-major order. */
+    int[] knownMines() {
+        return knownMines.stream().toArray();
+    }
+
+    int knownSafeCount() {
+        return knownSafeCount;
+    }
+
+    int knownMineCount() {
+        return knownMineCount;
+    }
+
+    boolean isKnownSafe(int i) {
+        return knownSafe.get(i);
+    }
+
+    boolean isKnownMine(int i) {
+        return knownMines.get(i);
+    }
+
+    /** First proven safe cell at or after {@code from} in row-major order, or -1. */
+    int nextKnownSafe(int from) {
+        return knownSafe.nextSetBit(from);
+    }
+
+    /**
+     * Moves to {@code next}, returning the components that changed; the first
+     * call sees every cell. A later position of the same game only refreshes
+     * the cells changed since, keeping what was proven and every component
+     * the skipped moves did not touch; the cells come from the board's change
+     * log, or from a scan when the gap is longer than the log reaches.
+     */
+    Change update(Board next) {
+        Board previous = board;
+        boolean sameSize = previous != null && next.rows() == rows && next.cols() == cols;
+        int[] changed = sameSize ? next.changedCells(previous) : null;
+        if (changed == null && sameSize) changed = revealedSince(previous, next);
+        board = next;
+        if (changed != null) {
+            for (int i : changed) {
+                if (!next.visibleAt(i / cols, i % cols).isRevealed()) continue;
+                if (!previous.visibleAt(i / cols, i % cols).isRevealed()) revealed++;
+                if (knownSafe.get(i)) {
+                    knownSafe.clear(i);
+                    knownSafeCount--;
+                }
+            }
+            return refresh(changed, new ArrayList<>());
+        }
+        // unrelated board: start over; constraints only sit on revealed cells
+        List<Component> removed = new ArrayList<>(components);
+        rows = next.rows();
+        cols = next.cols();
+        constraints = new Constraint[rows * cols];
+        componentOf = new Component[rows * cols];
+        mark = new int[rows * cols];
+        epoch = 0;
+        components.clear();
+        knownSafe.clear();
+        knownMines.clear();
+        knownSafeCount = knownMineCount = 0;
+        IntList open = new IntList();
+        for (int i = 0; i < rows * cols; i++) {
+            if (next.visibleAt(i / cols, i % cols).isRevealed()) open.add(i);
+        }
+        revealed = open.size();
+        return refresh(open.toArray(), removed);
+    }
+
+    /**
+     * Cells revealed on {@code later} but not on {@code earlier}, or null when
+     * {@code later} is not a later position of the same game (a cell revealed
+     * on {@code earlier} is hidden or shows another count). Flags are ignored,
+     * as everywhere in this class.
+     */
+    private static int[] revealedSince(Board earlier, Board later) {
+        IntList added = new IntList();
+        int cols = earlier.cols();
+        for (int r = 0; r < earlier.rows(); r++) {
+            for (int c = 0; c < cols; c++) {
+                boolean now = later.visibleAt(r, c).isRevealed();
+                if (!earlier.visibleAt(r, c).isRevealed()) {
+                    if (now) added.add(r * cols + c);
+                } else if (!now || later.adjacentMines(r, c) != earlier.adjacentMines(r, c)) {
+                    return null;
+                }
+            }
+        }
+        return added.toArray();
+    }
+
+    /** Records proven cells and takes them out of the constraints around them. */
+    Change settle(int[] safe, int[] mines) {
+        for (int i : safe) {
+            if (!knownSafe.get(i)) knownSafeCount++;
+            knownSafe.set(i);
+        }
+        for (int i : mines) {
+            if (!knownMines.get(i)) knownMineCount++;
+            knownMines.set(i);
+        }
+        int[] cells = Arrays.copyOf(safe, safe.length + mines.length);
+        System.arraycopy(mines, 0, cells, safe.length, mines.length);
+        return refresh(cells, new ArrayList<>());
+    }
+
+    /** Rebuilds the constraints around {@code cells} and regroups the components they touch. */
+    private Change refresh(int[] cells, List<Component> removed) {
+        // a cell can only alter its own constraint and those of its neighbours
+        IntList dirty = new IntList();
+        int seen = nextEpoch();
+        for (int i : cells) {
+            int r = i / cols, c = i - r * cols;
+            for (int nr = Math.max(0, r - 1); nr <= Math.min(rows - 1, r + 1); nr++) {
+                for (int nc = Math.max(0, c - 1); nc <= Math.min(cols - 1, c + 1); nc++) {
+                    int j = nr * cols + nc;
+                    if (mark[j] == seen) continue;
+                    Constraint old = constraints[j];
+                    Constraint now = constraintAt(nr, nc);
+                    if (now == null ? old == null : now.sameAs(old)) continue;
+                    mark[j] = seen;
+                    dirty.add(j);
+                    constraints[j] = now;
+                }
+            }
+        }
+        if (dirty.size() == 0) return new Change(removed, List.of());
+
+        // regroup every constraint of a touched component, plus the new ones
+        Set<Component> touched = new HashSet<>();
+        IntList seeds = new IntList();
+        for (int k = 0; k < dirty.size(); k++) {
+            int j = dirty.get(k);
+            Component old = componentOf[j];
+            componentOf[j] = null;
+            if (old != null && touched.add(old)) {
+                for (Constraint c : old.constraints) seeds.add(c.cell());
+            }
+            if (constraints[j] != null) seeds.add(j);
+        }
+        for (Component old : touched) {
+            for (Constraint c : old.constraints) componentOf[c.cell()] = null;
+        }
+        removed.addAll(touched);
+        components.removeAll(touched);
+
+        List<Component> added = new ArrayList<>();
+        for (int k = 0; k < seeds.size(); k++) {
+            int seed = seeds.get(k);
+            if (constraints[seed] == null || componentOf[seed] != null) continue;
+            added.add(grow(seed, removed));
+        }
+        return new Change(removed, added);
+    }
+
+    /**
+     * Breadth-first walk from one constraint over shared cells. A walk can
+     * reach an untouched component when a new constraint links it in; that
+     * component is absorbed and reported as removed.
+     */
+    private Component grow(int seed, List<Component> removed) {
+        List<Constraint> members = new ArrayList<>();
+        IntList vars = new IntList();
+        int seen = nextEpoch();
+        Component placeholder = new Component(members, null);
+        componentOf[seed] = placeholder;
+        members.add(constraints[seed]);
+        for (int k = 0; k < members.size(); k++) {
+            for (int v : members.get(k).vars()) {
+                if (mark[v] == seen) continue;
+                mark[v] = seen;
+                vars.add(v);
+                int r = v / cols, c = v - r * cols;
+                for (int nr = Math.max(0, r - 1); nr <= Math.min(rows - 1, r + 1); nr++) {
+                    for (int nc = Math.max(0, c - 1); nc <= Math.min(cols - 1, c + 1); nc++) {
+                        int j = nr * cols + nc;
+                        Constraint linked = constraints[j];
+                        if (linked == null) continue;
+                        Component owner = componentOf[j];
+                        if (owner == placeholder) continue;
+                        if (owner != null) {
+                            for (Constraint other : owner.constraints) componentOf[other.cell()] = null;
+                            components.remove(owner);
+                            removed.add(owner);
+                        }
+                        componentOf[j] = placeholder;
+                        members.add(linked);
+                    }
+                }
+            }
+        }
+        int[] sorted = vars.toArray();
+        Arrays.sort(sorted);
+        Component component = new Component(members, sorted);
+        for (Constraint k : members) componentOf[k.cell()] = component;
+        components.add(component);
+        return component;
+    }
+
+    /** A fresh mark for {@link #mark}; wrapping around clears the old marks. */
+    private int nextEpoch() {
+        if (++epoch == Integer.MAX_VALUE) {
+            Arrays.fill(mark, 0);
+            epoch = 1;
+        }
+        return epoch;
+    }
+
+    private Constraint constraintAt(int r, int c) {
+        if (!board.visibleAt(r, c).isRevealed()) return null;
+        int mines = board.adjacentMines(r, c);
+        if (mines < 0) return null; // an exploded mine says nothing
+        int[] vars = new int[8];
+        int n = 0;
+        for (int nr = Math.max(0, r - 1); nr <= Math.min(rows - 1, r + 1); nr++) {
+            for (int nc = Math.max(0, c - 1); nc <= Math.min(cols - 1, c + 1); nc++) {
+                int j = nr * cols + nc;
+                if (board.visibleAt(nr, nc).isRevealed() || knownSafe.get(j)) continue;
+                if (knownMines.get(j)) mines--;
+                else vars[n++] = j;
+            }
+        }
+        return n == 0 ? null : new Constraint(r * cols + c, Arrays.copyOf(vars, n), mines);
+    }
+}
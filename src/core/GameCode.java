@@ -0,0 +1,44 @@
+package core;
+
+/**
+ * Everything needed to rebuild a seeded game's layout. The text form,
+ * e.g. {@code 16x30-99-3.7-1x2hd9kq0a}, is short enough to share.
+ */
+public record GameCode(int rows, int cols, int mines, int safeR, int safeC, long seed) {
+    public GameCode {
+        if (rows <= 0 || cols <= 0 || (long) rows * cols > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Invalid size");
+        if (mines < 0 || mines >= rows * cols) throw new IllegalArgumentException("Invalid mine count");
+        if (safeR < 0 || safeR >= rows || safeC < 0 || safeC >= cols)
+            throw new IllegalArgumentException("Invalid safe cell");
+    }
+
+    public static GameCode parse(String code) {
+        String[] parts = code.trim().split("-");
+        if (parts.length != 4) throw new IllegalArgumentException("Invalid game code: " + code);
+        try {
+            String[] size = parts[0].split("x");
+            String[] safe = parts[2].split("\\.");
+            if (size.length != 2 || safe.length != 2) throw new IllegalArgumentException("Invalid game code: " + code);
+            return new GameCode(Integer.parseInt(size[0]), Integer.parseInt(size[1]), Integer.parseInt(parts[1]),
+                    Integer.parseInt(safe[0]), Integer.parseInt(safe[1]), Long.parseUnsignedLong(parts[3], 36));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid game code: " + code, e);
+        }
+    }
+
+    /** Mine cells as a row-major bit set, recomputed from the seed. */
+    public long[] mineBits() {
+        return new SeededMinePlacer(seed).placeMineBits(rows, cols, mines, safeR, safeC);
+    }
+
+    /** A fresh board for this game with the first click already made. */
+    public Board start() {
+        return new GridBoard(rows, cols, mines, new SeededMinePlacer(seed)).reveal(safeR, safeC);
+    }
+
+    @Override
+    public String toString() {
+        return rows + "x" + cols + "-" + mines + "-" + safeR + "." + safeC + "-" + Long.toUnsignedString(seed, 36);
+    }
+}
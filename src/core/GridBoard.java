@@ -1,58 +1,73 @@
 package core;
 
-import java.util.ArrayDeque;
-import java.util.ArrayList;
-import java.util.Deque;
-import java.util.List;
+import java.util.Collection;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
 
 public final class GridBoard implements Board {
+    private static final AtomicLong VERSIONS = new AtomicLong();
+    private static final int[] NO_CHANGES = new int[0];
+
     private final int rows;
     private final int cols;
     private final int mines;
     private final MinePlacer placer;
-    private final int[][] layout; // null until first reveal triggers placement
-    private final VisibleState[][] visible;
+    private final boolean placed; // false until first reveal triggers placement
+    private final int safeCell; // row-major cell the layout was placed around, -1 until placed
+    private final CellStore cells; // packed layout + visible state, tiles shared between board versions
     private final boolean lost;
     private final int revealedCount;
     private final int flaggedCount;
+    // diff bookkeeping: boards with the same version look identical; 'changes' leads back to earlier versions
+    private final long version;
+    private final ChangeLog changes;
 
     public GridBoard(int rows, int cols, int mines, MinePlacer placer) {
-        this(rows, cols, mines, placer, null, fillVisible(rows, cols, VisibleState.HIDDEN), false, 0, 0);
+        this(rows, cols, mines, placer, false, -1,
+                CellStore.filled(checkedSize(rows, cols), (byte) CellStore.HIDDEN), false, 0, 0,
+                VERSIONS.incrementAndGet(), null);
     }
 
     private GridBoard(int rows, int cols, int mines, MinePlacer placer,
-                      int[][] layout, VisibleState[][] visible,
-                      boolean lost, int revealedCount, int flaggedCount) {
+                      boolean placed, int safeCell, CellStore cells,
+                      boolean lost, int revealedCount, int flaggedCount,
+                      long version, ChangeLog changes) {
         if (rows <= 0 || cols <= 0) throw new IllegalArgumentException("Invalid size");
         if (mines < 0 || mines >= rows * cols) throw new IllegalArgumentException("Invalid mine count");
         this.rows = rows;
         this.cols = cols;
         this.mines = mines;
         this.placer = Objects.requireNonNull(placer, "placer");
-        this.layout = layout;
-        this.visible = visible;
+        this.placed = placed;
+        this.safeCell = safeCell;
+        this.cells = cells;
         this.lost = lost;
         this.revealedCount = revealedCount;
         this.flaggedCount = flaggedCount;
+        this.version = version;
+        this.changes = changes;
     }
 
-    private static VisibleState[][] fillVisible(int rows, int cols, VisibleState state) {
-        VisibleState[][] grid = new VisibleState[rows][cols];
-        for (int r = 0; r < rows; r++) {
-            for (int c = 0; c < cols; c++) {
-                grid[r][c] = state;
-            }
-        }
-        return grid;
+    /** Successor of this board after an action that changed the given cells. */
+    private GridBoard derive(CellStore next, boolean nextLost, int nextRevealed, int nextFlagged, int[] changedCells) {
+        return new GridBoard(rows, cols, mines, placer, placed, safeCell, next, nextLost, nextRevealed,
+                nextFlagged, VERSIONS.incrementAndGet(),
+                ChangeLog.after(changes, version, changedCells, rows * cols));
     }
 
-    private static VisibleState[][] copyVisible(VisibleState[][] source) {
-        VisibleState[][] copy = new VisibleState[source.length][];
-        for (int r = 0; r < source.length; r++) {
-            copy[r] = source[r].clone();
-        }
-        return copy;
+    private static int checkedSize(int rows, int cols) {
+        if (rows <= 0 || cols <= 0) throw new IllegalArgumentException("Invalid size");
+        long size = (long) rows * cols;
+        if (size > Integer.MAX_VALUE) throw new IllegalArgumentException("Board too large");
+        return (int) size;
+    }
+
+    private int index(int r, int c) {
+        return r * cols + c;
+    }
+
+    private static byte withState(byte cell, int state) {
+        return (byte) ((cell & ~CellStore.STATE_MASK) | state);
     }
 
     @Override
@@ -72,17 +87,18 @@ public final class GridBoard implements Board {
 
     @Override
     public boolean isMine(int r, int c) {
-        return layout != null && layout[r][c] == -1;
+        return CellStore.isMine(cells.get(index(r, c)));
     }
 
     @Override
     public int adjacentMines(int r, int c) {
-        return layout == null ? 0 : layout[r][c];
+        byte cell = cells.get(index(r, c));
+        return CellStore.isMine(cell) ? -1 : CellStore.countOf(cell);
     }
 
     @Override
     public VisibleState visibleAt(int r, int c) {
-        return visible[r][c];
+        return CellStore.stateOf(cells.get(index(r, c)));
     }
 
     @Override
@@ -105,15 +121,73 @@ public final class GridBoard implements Board {
         return flaggedCount;
     }
 
+    @Override
+    public int[] changedCells(Board previous) {
+        if (previous == this) return NO_CHANGES;
+        if (previous instanceof GridBoard other) {
+            if (other.version == version) return NO_CHANGES;
+            return ChangeLog.since(changes, other.version);
+        }
+        return null;
+    }
+
+    /** Shareable code for this layout, or null before placement or when the placer is not seeded. */
+    public GameCode gameCode() {
+        if (!placed || !(placer instanceof SeededMinePlacer seeded)) return null;
+        return new GameCode(rows, cols, mines, safeCell / cols, safeCell % cols, seeded.seed());
+    }
+
+    /**
+     * Keeps only the visible state of a seeded board; the layout can be
+     * recomputed from the seed when the game is resumed.
+     */
+    public ParkedGame park() {
+        if (!(placer instanceof SeededMinePlacer seeded)) {
+            throw new IllegalStateException("Only boards with a SeededMinePlacer can be parked");
+        }
+        int size = cells.size();
+        long[] states = new long[(size + 31) >>> 5];
+        for (int t = 0, tiles = cells.tileCount(); t < tiles; t++) {
+            byte[] tile = cells.readTile(t);
+            int base = t << CellStore.LEAF_BITS;
+            int length = Math.min(tile.length, size - base);
+            for (int k = 0; k < length; k++) {
+                int state = (tile[k] & CellStore.STATE_MASK) >>> CellStore.STATE_SHIFT;
+                if (state == 0) continue;
+                int i = base + k;
+                states[i >>> 5] |= (long) state << ((i & 31) << 1);
+            }
+        }
+        return new ParkedGame(rows, cols, mines, seeded.seed(), placed ? safeCell : -1, states,
+                lost, revealedCount, flaggedCount);
+    }
+
+    static GridBoard resume(ParkedGame parked) {
+        int rows = parked.rows, cols = parked.cols, size = checkedSize(rows, cols);
+        SeededMinePlacer placer = new SeededMinePlacer(parked.seed);
+        boolean placed = parked.safeCell >= 0;
+        byte[] layout = placed
+                ? AdjacencyCounter.count(placer.placeMineBits(rows, cols, parked.mines,
+                        parked.safeCell / cols, parked.safeCell % cols), rows, cols)
+                : new byte[size];
+        for (int i = 0; i < size; i++) {
+            layout[i] |= (byte) (parked.stateAt(i) << CellStore.STATE_SHIFT);
+        }
+        CellStore cells = CellStore.filled(size, (byte) CellStore.HIDDEN).withLayout(layout);
+        return new GridBoard(rows, cols, parked.mines, placer, placed, parked.safeCell, cells,
+                parked.lost, parked.revealedCount, parked.flaggedCount,
+                VERSIONS.incrementAndGet(), null);
+    }
+
     @Override
     public Board reveal(int r, int c) {
         if (!inBounds(r, c) || lost) return this;
-        if (!visible[r][c].isHidden()) return this;
-        if (layout == null) {
+        if (!visibleAt(r, c).isHidden()) return this;
+        if (!placed) {
             return ensureLayout(r, c).reveal(r, c);
         }
-        if (layout[r][c] == -1) {
-            return revealAllMines();
+        if (isMine(r, c)) {
+            return revealAllMines(cells.edit(), revealedCount, new IntList());
         }
         return floodReveal(r, c);
     }
@@ -121,98 +195,137 @@ public final class GridBoard implements Board {
     @Override
     public Board toggleFlag(int r, int c) {
         if (!inBounds(r, c) || lost) return this;
-        VisibleState current = visible[r][c];
+        int i = index(r, c);
+        byte cell = cells.get(i);
+        VisibleState current = CellStore.stateOf(cell);
         if (current.isRevealed()) return this;
 
-        VisibleState[][] next = copyVisible(visible);
+        CellStore next;
         int nextFlagged = flaggedCount;
         if (current.isFlagged()) {
-            next[r][c] = VisibleState.HIDDEN;
+            next = cells.with(i, withState(cell, CellStore.HIDDEN));
             nextFlagged = Math.max(0, nextFlagged - 1);
         } else {
-            next[r][c] = VisibleState.FLAGGED;
+            next = cells.with(i, withState(cell, CellStore.FLAGGED));
             nextFlagged++;
         }
-        return new GridBoard(rows, cols, mines, placer, layout, next, lost, revealedCount, nextFlagged);
+        return derive(next, lost, revealedCount, nextFlagged, new int[]{i});
     }
 
     @Override
     public Board chord(int r, int c) {
-        if (!inBounds(r, c) || lost || layout == null) return this;
-        if (!visible[r][c].isRevealed()) return this;
-        int required = layout[r][c];
+        if (!inBounds(r, c) || lost || !placed) return this;
+        if (!visibleAt(r, c).isRevealed()) return this;
+        int required = adjacentMines(r, c);
         if (required <= 0) return this;
 
         int flaggedAround = 0;
-        List<int[]> hiddenNeighbors = new ArrayList<>();
+        int[] hiddenNeighbors = new int[8];
+        int hiddenCount = 0;
         for (int dr = -1; dr <= 1; dr++) {
             for (int dc = -1; dc <= 1; dc++) {
                 if (dr == 0 && dc == 0) continue;
                 int nr = r + dr;
                 int nc = c + dc;
                 if (!inBounds(nr, nc)) continue;
-                VisibleState state = visible[nr][nc];
+                VisibleState state = visibleAt(nr, nc);
                 if (state.isFlagged()) flaggedAround++;
-                else if (state.isHidden()) hiddenNeighbors.add(new int[]{nr, nc});
+                else if (state.isHidden()) hiddenNeighbors[hiddenCount++] = index(nr, nc);
             }
         }
 
         if (flaggedAround != required) return this;
+        return revealSeeds(hiddenNeighbors, hiddenCount);
+    }
+
+    @Override
+    public Board revealAll(Collection<Cell> targets) {
+        Objects.requireNonNull(targets, "targets");
+        if (lost || targets.isEmpty()) return this;
+
+        int[] seeds = new int[targets.size()];
+        int count = 0;
+        for (Cell cell : targets) {
+            if (inBounds(cell.r(), cell.c())) seeds[count++] = index(cell.r(), cell.c());
+        }
+        if (placed) return revealSeeds(seeds, count);
+
+        // the first target a plain reveal would act on decides the safe zone
+        for (int k = 0; k < count; k++) {
+            int i = seeds[k];
+            if (CellStore.stateOf(cells.get(i)).isHidden()) {
+                return ensureLayout(i / cols, i % cols).revealSeeds(seeds, count);
+            }
+        }
+        return this;
+    }
 
-        GridBoard current = this;
-        for (int[] cell : hiddenNeighbors) {
-            current = (GridBoard) current.reveal(cell[0], cell[1]);
+    /**
+     * Reveals the given cells in order on one scratch copy of the cells.
+     * Matches chained {@link #reveal} calls: hidden seeds up to the first mine
+     * are flooded together, and hitting a mine ends the batch with a loss.
+     */
+    private GridBoard revealSeeds(int[] seeds, int count) {
+        int floodCount = 0;
+        boolean hitMine = false;
+        for (int k = 0; k < count; k++) {
+            byte cell = cells.get(seeds[k]);
+            if ((cell & CellStore.STATE_MASK) != CellStore.HIDDEN) continue;
+            if (CellStore.isMine(cell)) {
+                hitMine = true;
+                break;
+            }
+            seeds[floodCount++] = seeds[k];
         }
-        return current;
+        if (floodCount == 0 && !hitMine) return this;
+
+        CellStore.Editor next = cells.edit();
+        IntList revealed = new IntList();
+        int nextRevealed = revealedCount;
+        if (floodCount > 0) nextRevealed += FloodFill.reveal(next, rows, cols, seeds, floodCount, revealed);
+        if (hitMine) return revealAllMines(next, nextRevealed, revealed);
+        return derive(next.freeze(), false, nextRevealed, flaggedCount, revealed.toArray());
     }
 
     private GridBoard ensureLayout(int safeR, int safeC) {
-        int[][] generated = placer.placeMines(rows, cols, mines, safeR, safeC);
-        return new GridBoard(rows, cols, mines, placer, generated, visible, lost, revealedCount, flaggedCount);
+        long[] mineBits = placer.placeMineBits(rows, cols, mines, safeR, safeC);
+        // fold the layout into the packed cells, keeping any flags placed before the first reveal
+        CellStore next = cells.withLayout(AdjacencyCounter.count(mineBits, rows, cols));
+        // placement changes nothing on screen, so the placed board keeps this board's version
+        return new GridBoard(rows, cols, mines, placer, true, index(safeR, safeC), next, lost,
+                revealedCount, flaggedCount, version, changes);
     }
 
     private GridBoard floodReveal(int startR, int startC) {
-        VisibleState[][] next = copyVisible(visible);
-        int nextRevealed = revealedCount;
-        Deque<int[]> queue = new ArrayDeque<>();
-        queue.add(new int[]{startR, startC});
-        while (!queue.isEmpty()) {
-            int[] cell = queue.removeFirst();
-            int r = cell[0];
-            int c = cell[1];
-            if (!inBounds(r, c)) continue;
-            if (!next[r][c].isHidden()) continue;
-            next[r][c] = VisibleState.REVEALED;
-            nextRevealed++;
-            if (layout[r][c] == 0) {
-                for (int dr = -1; dr <= 1; dr++) {
-                    for (int dc = -1; dc <= 1; dc++) {
-                        if (dr == 0 && dc == 0) continue;
-                        queue.add(new int[]{r + dr, c + dc});
-                    }
-                }
-            }
-        }
-        return new GridBoard(rows, cols, mines, placer, layout, next, false, nextRevealed, flaggedCount);
+        CellStore.Editor next = cells.edit();
+        IntList revealed = new IntList();
+        int nextRevealed = revealedCount + FloodFill.reveal(next, rows, cols, index(startR, startC), revealed);
+        return derive(next.freeze(), false, nextRevealed, flaggedCount, revealed.toArray());
     }
 
-    private GridBoard revealAllMines() {
-        VisibleState[][] next = copyVisible(visible);
-        int nextRevealed = revealedCount;
+    private GridBoard revealAllMines(CellStore.Editor next, int nextRevealed, IntList revealed) {
         int nextFlagged = flaggedCount;
 
-        for (int r = 0; r < rows; r++) {
-            for (int c = 0; c < cols; c++) {
-                if (layout[r][c] != -1) continue;
-                VisibleState current = next[r][c];
-                if (current.isRevealed()) continue;
-                if (current.isFlagged()) {
+        // walk tile by tile over the flat arrays; only tiles holding an unrevealed mine get copied
+        int size = cells.size();
+        for (int t = 0, tiles = cells.tileCount(); t < tiles; t++) {
+            byte[] tile = cells.readTile(t);
+            int length = Math.min(tile.length, size - (t << CellStore.LEAF_BITS));
+            byte[] target = null;
+            for (int k = 0; k < length; k++) {
+                byte cell = tile[k];
+                if (!CellStore.isMine(cell)) continue;
+                int state = cell & CellStore.STATE_MASK;
+                if (state == CellStore.REVEALED) continue;
+                if (state == CellStore.FLAGGED) {
                     nextFlagged = Math.max(0, nextFlagged - 1);
                 }
-                next[r][c] = VisibleState.REVEALED;
+                if (target == null) target = next.writableTile(t);
+                target[k] = withState(cell, CellStore.REVEALED);
+                revealed.add((t << CellStore.LEAF_BITS) + k);
                 nextRevealed++;
             }
         }
-        return new GridBoard(rows, cols, mines, placer, layout, next, true, nextRevealed, nextFlagged);
+        return derive(next.freeze(), true, nextRevealed, nextFlagged, revealed.toArray());
     }
 }
@@ -0,0 +1,40 @@
+package core;
+
+import java.util.Arrays;
+
+/** Growable list of primitive ints, used to record cell indices without boxing. */
+final class IntList {
+    private int[] items;
+    private int size;
+
+    IntList() {
+        this(16);
+    }
+
+    IntList(int capacity) {
+        this.items = new int[Math.max(1, capacity)];
+    }
+
+    void add(int value) {
+        if (size == items.length) items = Arrays.copyOf(items, size * 2);
+        items[size++] = value;
+    }
+
+    void addAll(IntList other) {
+        if (size + other.size > items.length) items = Arrays.copyOf(items, Math.max(items.length * 2, size + other.size));
+        System.arraycopy(other.items, 0, items, size, other.size);
+        size += other.size;
+    }
+
+    int get(int i) {
+        return items[i];
+    }
+
+    int size() {
+        return size;
+    }
+
+    int[] toArray() {
+        return Arrays.copyOf(items, size);
+    }
+}
@@ -2,4 +2,23 @@ package core;
 
 public interface MinePlacer {
     int[][] placeMines(int rows, int cols, int mineCount, int safeR, int safeC);
+
+    /**
+     * Mine cells only, as a row-major bit set (bit {@code r * cols + c}).
+     * Boards use this so they can pack counts themselves; the default derives
+     * it from {@link #placeMines}.
+     */
+    default long[] placeMineBits(int rows, int cols, int mineCount, int safeR, int safeC) {
+        int[][] layout = placeMines(rows, cols, mineCount, safeR, safeC);
+        long[] bits = new long[(int) (((long) rows * cols + 63) >>> 6)];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                if (layout[r][c] == -1) {
+                    int i = r * cols + c;
+                    bits[i >>> 6] |= 1L << i;
+                }
+            }
+        }
+        return bits;
+    }
 }
@@ -0,0 +1,369 @@
+package core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Chance that each unrevealed cell holds a mine, given the revealed numbers
+ * and the board's mine total. Follows one game like {@link Solver}, whose
+ * frontier it shares: proven cells are exactly 0 or 1, and every remaining
+ * frontier component is counted once, by number of mines, and cached until a
+ * move changes it. Small components are enumerated exactly; larger ones are
+ * estimated from random solutions. The components are then weighted against
+ * each other and against the cells off the frontier by how many ways the
+ * remaining mines can be spread, exactly when there are few components and
+ * by a fitted mine density otherwise.
+ * <p>
+ * Flags are not trusted, so the remaining mines are the total minus the
+ * proven ones and flagged cells get a probability like any other. Not
+ * thread-safe; meant to live on one background thread.
+ */
+public final class MineProbabilities {
+    private static final int EXACT_MAX_CELLS = 256;       // larger components are sampled
+    private static final long EXACT_BUDGET = 1L << 22;     // search nodes per component
+    private static final int SAMPLES = 512;
+    private static final long SAMPLE_BUDGET = 1L << 16;    // search nodes per sample
+    private static final int EXACT_MAX_COMPONENTS = 48;    // beyond this, components are weighted by density
+    private static final int EXACT_MAX_SPAN = 2048;        // ... or when their mine counts span this much
+
+    private final Solver solver;
+    private final Map<Frontier.Component, Counts> cache = new IdentityHashMap<>();
+
+    /** Mine counts of one component: {@code weight[k]} for {@code kMin + k} mines. */
+    private static final class Counts {
+        final int kMin;
+        final double[] weight;
+        final double[][] mineIn; // per component cell, same indexing as weight
+        final boolean exact;
+
+        Counts(int kMin, double[] weight, double[][] mineIn, boolean exact) {
+            this.kMin = kMin;
+            this.weight = weight;
+            this.mineIn = mineIn;
+            this.exact = exact;
+        }
+    }
+
+    /** Result of {@link #compute}: a probability per unrevealed cell. */
+    public static final class Heat {
+        private final Board board;
+        private final int[] cells;     // sorted row-major indices with their own value
+        private final float[] values;
+        private final float elsewhere; // every other unrevealed cell
+        private final boolean exact;
+
+        private Heat(Board board, int[] cells, float[] values, float elsewhere, boolean exact) {
+            this.board = board;
+            this.cells = cells;
+            this.values = values;
+            this.elsewhere = elsewhere;
+            this.exact = exact;
+        }
+
+        /** The board these probabilities describe. */
+        public Board board() {
+            return board;
+        }
+
+        /** Mine probability of an unrevealed cell; meaningless for revealed ones. */
+        public double at(int r, int c) {
+            int k = Arrays.binarySearch(cells, r * board.cols() + c);
+            return k >= 0 ? values[k] : elsewhere;
+        }
+
+        /** False when some part was sampled or weighted by density. */
+        public boolean isExact() {
+            return exact;
+        }
+    }
+
+    public MineProbabilities(Board board) {
+        this.solver = new Solver(board);
+    }
+
+    /** Moves to {@code next}; components the move did not touch keep their counts. */
+    public void update(Board next) {
+        solver.update(next);
+        cache.keySet().retainAll(solver.frontier().components());
+    }
+
+    /**
+     * Probabilities for the current board, or null when {@code cancelled}
+     * answered true first. Counts finished before cancelling stay cached.
+     */
+    public Heat compute(BooleanSupplier cancelled) {
+        Frontier frontier = solver.frontier();
+        Board board = frontier.board();
+        List<Frontier.Component> components = new ArrayList<>(frontier.components());
+        components.sort((a, b) -> Integer.compare(a.vars[0], b.vars[0])); // fixed order, so results repeat
+        List<Counts> counts = new ArrayList<>(components.size());
+        boolean exact = true;
+        for (Frontier.Component component : components) {
+            if (cancelled.getAsBoolean()) return null;
+            Counts c = cache.get(component);
+            if (c == null) {
+                c = count(component, cancelled);
+                if (c == null) return null;
+                cache.put(component, c);
+            }
+            counts.add(c);
+            exact &= c.exact;
+        }
+
+        int frontierCells = 0;
+        for (Frontier.Component component : components) frontierCells += component.vars.length;
+        int unrevealed = board.rows() * board.cols() - frontier.revealed();
+        int others = Math.max(0, unrevealed - frontier.knownSafeCount() - frontier.knownMineCount() - frontierCells);
+        int remaining = board.totalMines() - frontier.knownMineCount();
+
+        Weights weights = weigh(counts, others, remaining);
+        exact &= weights.exact;
+
+        int size = frontierCells + frontier.knownSafeCount() + frontier.knownMineCount();
+        int[] cells = new int[size];
+        float[] values = new float[size];
+        int n = 0;
+        for (int i : frontier.knownSafe()) { cells[n] = i; values[n++] = 0f; }
+        for (int i : frontier.knownMines()) { cells[n] = i; values[n++] = 1f; }
+        for (int j = 0; j < components.size(); j++) {
+            Counts c = counts.get(j);
+            double[] w = weights.perComponent[j];
+            double norm = 0;
+            for (int k = 0; k < c.weight.length; k++) norm += c.weight[k] * w[k];
+            int[] vars = components.get(j).vars;
+            for (int v = 0; v < vars.length; v++) {
+                double mine = 0;
+                for (int k = 0; k < c.weight.length; k++) mine += c.mineIn[v][k] * w[k];
+                cells[n] = vars[v];
+                values[n++] = norm > 0 ? (float) (mine / norm) : 0.5f;
+            }
+        }
+        // sort cells and carry their values along
+        long[] packed = new long[n];
+        for (int k = 0; k < n; k++) packed[k] = (long) cells[k] << 32 | Float.floatToRawIntBits(values[k]) & 0xFFFFFFFFL;
+        Arrays.sort(packed);
+        for (int k = 0; k < n; k++) {
+            cells[k] = (int) (packed[k] >>> 32);
+            values[k] = Float.intBitsToFloat((int) packed[k]);
+        }
+        return new Heat(board, cells, values, (float) weights.elsewhere, exact);
+    }
+
+    /* ------------ counting one component ------------ */
+
+    private static Counts count(Frontier.Component component, BooleanSupplier cancelled) {
+        int n = component.vars.length;
+        if (n <= EXACT_MAX_CELLS) {
+            double[] total = new double[n + 1];
+            double[][] mineIn = new double[n][n + 1];
+            if (new Solver.Search(component).enumerate(EXACT_BUDGET, total, mineIn, cancelled)) {
+                return trim(total, mineIn, true);
+            }
+            if (cancelled.getAsBoolean()) return null;
+        }
+        // too many solutions to list: estimate from random ones
+        Solver.Search search = new Solver.Search(component);
+        SplittableRandom rng = new SplittableRandom(component.vars[0]); // seeded by position, so repeatable
+        List<byte[]> samples = new ArrayList<>();
+        for (int s = 0; s < SAMPLES; s++) {
+            if ((s & 31) == 0 && cancelled.getAsBoolean()) return null;
+            byte[] sample = search.sample(rng, SAMPLE_BUDGET);
+            if (sample != null) samples.add(sample);
+        }
+        double[] total = new double[n + 1];
+        double[][] mineIn = new double[n][];
+        int[] minesOf = new int[samples.size()];
+        for (int s = 0; s < samples.size(); s++) {
+            for (byte b : samples.get(s)) minesOf[s] += b;
+            total[minesOf[s]]++;
+        }
+        if (samples.isEmpty()) total[n / 2] = 1; // nothing found: no information either way
+        int lo = 0, hi = n;
+        while (lo < n && total[lo] == 0) lo++;
+        while (hi > lo && total[hi] == 0) hi--;
+        for (int v = 0; v < n; v++) mineIn[v] = new double[hi - lo + 1];
+        for (int s = 0; s < samples.size(); s++) {
+            byte[] sample = samples.get(s);
+            for (int v = 0; v < n; v++) if (sample[v] == 1) mineIn[v][minesOf[s] - lo]++;
+        }
+        if (samples.isEmpty()) for (int v = 0; v < n; v++) mineIn[v][0] = 0.5;
+        return new Counts(lo, Arrays.copyOfRange(total, lo, hi + 1), mineIn, false);
+    }
+
+    /** Drops the mine counts no solution has. */
+    private static Counts trim(double[] total, double[][] mineIn, boolean exact) {
+        int lo = 0, hi = total.length - 1;
+        while (lo < hi && total[lo] == 0) lo++;
+        while (hi > lo && total[hi] == 0) hi--;
+        double[][] cells = new double[mineIn.length][];
+        for (int v = 0; v < mineIn.length; v++) cells[v] = Arrays.copyOfRange(mineIn[v], lo, hi + 1);
+        return new Counts(lo, Arrays.copyOfRange(total, lo, hi + 1), cells, exact);
+    }
+
+    /* ------------ weighing components against each other ------------ */
+
+    /** Relative weight of each mine count per component, and the probability off the frontier. */
+    private record Weights(double[][] perComponent, double elsewhere, boolean exact) { }
+
+    private static Weights weigh(List<Counts> counts, int others, int remaining) {
+        int span = 0;
+        for (Counts c : counts) span += c.weight.length - 1;
+        if (counts.size() <= EXACT_MAX_COMPONENTS && span <= EXACT_MAX_SPAN) {
+            return weighExactly(counts, others, remaining);
+        }
+        return weighByDensity(counts, others, remaining);
+    }
+
+    /**
+     * Exact weighting: a component with {@code k} mines leaves the rest to
+     * the other components and to the {@code others} free cells, so its
+     * weight sums, over the other components' totals, the ways to place what
+     * is left on the free cells. Prefix and suffix products of the
+     * components' count polynomials give "all but one" in linear passes.
+     */
+    private static Weights weighExactly(List<Counts> counts, int others, int remaining) {
+        int m = counts.size();
+        double[][] poly = new double[m][];
+        int[] base = new int[m + 1];
+        for (int j = 0; j < m; j++) {
+            poly[j] = normalised(counts.get(j).weight);
+            base[j + 1] = base[j] + counts.get(j).kMin;
+        }
+        double[][] prefix = new double[m + 1][], suffix = new double[m + 1][];
+        prefix[0] = new double[]{1};
+        for (int j = 0; j < m; j++) prefix[j + 1] = normalised(multiply(prefix[j], poly[j]));
+        suffix[m] = new double[]{1};
+        for (int j = m - 1; j >= 0; j--) suffix[j] = normalised(multiply(poly[j], suffix[j + 1]));
+
+        // log of the ways to put 'left' mines on the free cells; only left = top - (0..span) can occur
+        int top = remaining - base[m];
+        int span = prefix[m].length - 1;
+        double[] logWays = new double[span + 1];
+        for (int t = 0; t <= span; t++) {
+            int left = top - t;
+            if (left < 0 || left > others) logWays[t] = Double.NEGATIVE_INFINITY;
+            else if (t > 0 && logWays[t - 1] != Double.NEGATIVE_INFINITY) logWays[t] = logWays[t - 1] + Math.log((double) (left + 1) / (others - left));
+            else logWays[t] = logChoose(others, left);
+        }
+
+        double[][] perComponent = new double[m][];
+        for (int j = 0; j < m; j++) {
+            double[] rest = multiply(prefix[j], suffix[j + 1]);
+            double[] w = new double[poly[j].length];
+            double[] logs = new double[poly[j].length];
+            double max = Double.NEGATIVE_INFINITY;
+            for (int k = 0; k < w.length; k++) {
+                double best = Double.NEGATIVE_INFINITY;
+                for (int q = 0; q < rest.length; q++) {
+                    if (rest[q] == 0 || logWays[k + q] == Double.NEGATIVE_INFINITY) continue;
+                    best = Math.max(best, Math.log(rest[q]) + logWays[k + q]);
+                }
+                logs[k] = best;
+                max = Math.max(max, best);
+            }
+            for (int k = 0; k < w.length; k++) {
+                if (logs[k] == Double.NEGATIVE_INFINITY) continue;
+                // sum in linear space relative to the largest term
+                double sum = 0;
+                for (int q = 0; q < rest.length; q++) {
+                    if (rest[q] == 0 || logWays[k + q] == Double.NEGATIVE_INFINITY) continue;
+                    sum += Math.exp(Math.log(rest[q]) + logWays[k + q] - max);
+                }
+                w[k] = sum;
+            }
+            perComponent[j] = w;
+        }
+
+        // expected mines on the free cells, over all totals
+        double[] all = prefix[m];
+        double num = 0, den = 0, max = Double.NEGATIVE_INFINITY;
+        for (int q = 0; q < all.length; q++) {
+            if (all[q] == 0 || logWays[q] == Double.NEGATIVE_INFINITY) continue;
+            max = Math.max(max, Math.log(all[q]) + logWays[q]);
+        }
+        for (int q = 0; q < all.length; q++) {
+            if (all[q] == 0 || logWays[q] == Double.NEGATIVE_INFINITY) continue;
+            double weight = Math.exp(Math.log(all[q]) + logWays[q] - max);
+            num += weight * (top - q);
+            den += weight;
+        }
+        double elsewhere = others == 0 || den == 0 ? 0 : num / den / others;
+        return new Weights(perComponent, elsewhere, true);
+    }
+
+    /**
+     * Approximate weighting for many components: with {@code d} the mine
+     * density off the frontier, one more mine in a component is worth a
+     * factor {@code d / (1 - d)}. The density is refitted until the expected
+     * mines add up to the remaining total.
+     */
+    private static Weights weighByDensity(List<Counts> counts, int others, int remaining) {
+        int m = counts.size();
+        double density = others > 0 ? Math.min(1, Math.max(0, (double) remaining / (others + frontierSize(counts)))) : 0.5;
+        double[][] perComponent = new double[m][];
+        for (int round = 0; round < 32; round++) {
+            double d = Math.min(1 - 1e-9, Math.max(1e-9, density));
+            double logOdds = Math.log(d / (1 - d));
+            double expected = 0;
+            for (int j = 0; j < m; j++) {
+                Counts c = counts.get(j);
+                double[] w = new double[c.weight.length];
+                double top = (c.weight.length - 1) * Math.max(0, logOdds); // keep exponents bounded
+                double num = 0, den = 0;
+                for (int k = 0; k < w.length; k++) {
+                    w[k] = Math.exp(k * logOdds - top);
+                    num += c.weight[k] * w[k] * (c.kMin + k);
+                    den += c.weight[k] * w[k];
+                }
+                perComponent[j] = w;
+                if (den > 0) expected += num / den;
+            }
+            if (others == 0) break;
+            double next = Math.min(1, Math.max(0, (remaining - expected) / others));
+            if (Math.abs(next - density) < 1e-6) {
+                density = next;
+                break;
+            }
+            density = next;
+        }
+        return new Weights(perComponent, others == 0 ? 0 : density, false);
+    }
+
+    private static int frontierSize(List<Counts> counts) {
+        int n = 0;
+        for (Counts c : counts) n += c.mineIn.length;
+        return n;
+    }
+
+    private static double[] multiply(double[] a, double[] b) {
+        double[] out = new double[a.length + b.length - 1];
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == 0) continue;
+            for (int j = 0; j < b.length; j++) out[i + j] += a[i] * b[j];
+        }
+        return out;
+    }
+
+    /** Scaled so the largest entry is 1; only ratios matter and this keeps products finite. */
+    private static double[] normalised(double[] p) {
+        double max = 0;
+        for (double v : p) max = Math.max(max, v);
+        if (max == 0) return p;
+        double[] out = new double[p.length];
+        for (int i = 0; i < p.length; i++) out[i] = p[i] / max;
+        return out;
+    }
+
+    private static double logChoose(int n, int k) {
+        if (k < 0 || k > n) return Double.NEGATIVE_INFINITY;
+        k = Math.min(k, n - k);
+        double sum = 0;
+        for (int i = 0; i < k; i++) sum += Math.log((double) (n - i) / (i + 1));
+        return sum;
+    }
+}
@@ -0,0 +1,325 @@
+package core;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Mine placement that only returns layouts the {@link Solver} can finish from
+ * the first click without guessing. Candidates are drawn like
+ * {@link RandomMinePlacer}'s and played out by the solver; the attempts run in
+ * parallel on the common fork-join pool, and once one succeeds the others
+ * stop. Among the successes the lowest attempt wins, so for a given seed and
+ * call the result does not depend on thread timing. The guarantee is best
+ * effort: a plain random layout is returned instead after
+ * {@value #MAX_ATTEMPTS} failures, after {@value #SEARCH_BUDGET_MS} ms, or as
+ * soon as the calling thread is interrupted, since on large dense boards a
+ * search can take minutes. Placers from {@link #reporting} say when that
+ * happens.
+ * <p>
+ * {@link #prepare} keeps a few layouts per board size ready on a background
+ * thread. It tries one attempt at a time, so it never competes with a
+ * foreground search for the fork-join pool, and gives up on a size whose
+ * search runs past {@value #REFILL_BUDGET_MS} ms. A pooled layout is solvable
+ * from any cell of one opening; a first click is served from the pool when it
+ * lands in that opening under one of the board's mirror images (or
+ * transposes, on square boards), which costs a single copy of the bits. Other
+ * clicks fall back to a fresh search.
+ */
+public final class NoGuessMinePlacer implements MinePlacer {
+    static final int MAX_ATTEMPTS = 20_000;
+    static final long SEARCH_BUDGET_MS = 3_000;  // first click waits at most this long
+    static final long REFILL_BUDGET_MS = 30_000; // per pooled layout, in the background
+    private static final int POOL_SIZE = 4; // ready layouts per board size
+
+    private final long seed;
+    private final AtomicLong calls = new AtomicLong();
+
+    private final Map<Size, ArrayDeque<Ready>> pool = new HashMap<>(); // guarded by itself
+    private final Set<Size> filling = new HashSet<>();                 // guarded by 'pool'
+    private final Set<Size> tooHard = new HashSet<>();                 // guarded by 'pool'
+    private final ExecutorService refill = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "no-guess-pool");
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        return t;
+    });
+
+    private record Size(int rows, int cols, int mines) { }
+
+    /** A solvable layout and the cells it may be opened from (its opening's zero cells). */
+    private record Ready(long[] mineBits, BitSet starts) { }
+
+    public NoGuessMinePlacer() {
+        this(new SplittableRandom().nextLong());
+    }
+
+    public NoGuessMinePlacer(long seed) {
+        this.seed = seed;
+    }
+
+    @Override
+    public int[][] placeMines(int rows, int cols, int mineCount, int safeR, int safeC) {
+        return AdjacencyCounter.grid(placeMineBits(rows, cols, mineCount, safeR, safeC), rows, cols);
+    }
+
+    @Override
+    public long[] placeMineBits(int rows, int cols, int mineCount, int safeR, int safeC) {
+        return place(rows, cols, mineCount, safeR, safeC, () -> { });
+    }
+
+    /**
+     * This placer, running {@code onFallback} on the placing thread whenever
+     * it hands out a plain random layout because no solvable one was found.
+     */
+    public MinePlacer reporting(Runnable onFallback) {
+        return new MinePlacer() {
+            @Override
+            public int[][] placeMines(int rows, int cols, int mineCount, int safeR, int safeC) {
+                return AdjacencyCounter.grid(placeMineBits(rows, cols, mineCount, safeR, safeC), rows, cols);
+            }
+
+            @Override
+            public long[] placeMineBits(int rows, int cols, int mineCount, int safeR, int safeC) {
+                return place(rows, cols, mineCount, safeR, safeC, onFallback);
+            }
+        };
+    }
+
+    private long[] place(int rows, int cols, int mineCount, int safeR, int safeC, Runnable onFallback) {
+        Size size = new Size(rows, cols, mineCount);
+        long[] pooled = takePooled(size, safeR, safeC);
+        if (pooled != null) {
+            prepare(rows, cols, mineCount);
+            return pooled;
+        }
+        long call = calls.incrementAndGet();
+        Thread caller = Thread.currentThread();
+        long deadline = System.nanoTime() + SEARCH_BUDGET_MS * 1_000_000;
+        long[] found = search(rows, cols, mineCount, safeR, safeC, call, true,
+                () -> caller.isInterrupted() || System.nanoTime() > deadline);
+        if (found != null) return found;
+        onFallback.run();
+        return candidate(SeededMinePlacer.mix(seed, call), 0, rows, cols, mineCount, safeR, safeC);
+    }
+
+    /**
+     * Starts filling the pool for one board size in the background; returns at once.
+     *
+     * @throws IllegalArgumentException for sizes no layout can be drawn for
+     */
+    public void prepare(int rows, int cols, int mineCount) {
+        RandomMinePlacer.checkSize(rows, cols, mineCount);
+        Size size = new Size(rows, cols, mineCount);
+        synchronized (pool) {
+            if (tooHard.contains(size) || !filling.add(size)) return;
+        }
+        refill.execute(() -> {
+            try {
+                while (pooledCount(size) < POOL_SIZE) {
+                    long call = calls.incrementAndGet();
+                    SplittableRandom rng = new SplittableRandom(SeededMinePlacer.mix(seed, ~call));
+                    int sr = rng.nextInt(rows), sc = rng.nextInt(cols);
+                    long deadline = System.nanoTime() + REFILL_BUDGET_MS * 1_000_000;
+                    long[] bits = search(rows, cols, mineCount, sr, sc, call, false, () -> System.nanoTime() > deadline);
+                    if (bits == null) { // leave this size to the click's own, bounded search
+                        synchronized (pool) {
+                            tooHard.add(size);
+                        }
+                        return;
+                    }
+                    BitSet starts = opening(bits, rows, cols, sr, sc);
+                    synchronized (pool) {
+                        pool.computeIfAbsent(size, k -> new ArrayDeque<>()).add(new Ready(bits, starts));
+                    }
+                }
+            } finally {
+                synchronized (pool) {
+                    filling.remove(size);
+                }
+            }
+        });
+    }
+
+    private int pooledCount(Size size) {
+        synchronized (pool) {
+            ArrayDeque<Ready> ready = pool.get(size);
+            return ready == null ? 0 : ready.size();
+        }
+    }
+
+    private long[] takePooled(Size size, int safeR, int safeC) {
+        int symmetries = size.rows() == size.cols() ? 8 : 4;
+        synchronized (pool) {
+            ArrayDeque<Ready> ready = pool.get(size);
+            if (ready == null) return null;
+            for (Iterator<Ready> it = ready.iterator(); it.hasNext(); ) {
+                Ready candidate = it.next();
+                for (int t = 0; t < symmetries; t++) {
+                    if (candidate.starts.get(source(t, size.rows(), size.cols(), safeR, safeC))) {
+                        it.remove();
+                        return transform(candidate.mineBits, t, size.rows(), size.cols());
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /* ------------ parallel search ------------ */
+
+    /**
+     * Tries candidates, in parallel unless {@code parallel} is false. Workers
+     * claim attempt numbers in order and stop claiming past the best success
+     * so far; running attempts above it are cancelled through their solver
+     * loop, and every attempt stops once {@code stop} answers true.
+     *
+     * @return the lowest solvable attempt, or null when none was found
+     */
+    private long[] search(int rows, int cols, int mineCount, int safeR, int safeC, long call,
+                          boolean parallel, BooleanSupplier stop) {
+        long stream = SeededMinePlacer.mix(seed, call);
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger best = new AtomicInteger(Integer.MAX_VALUE);
+        long[][] found = new long[1][];
+        Object lock = new Object();
+
+        class Attempts extends RecursiveAction {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected void compute() {
+                int i;
+                while ((i = next.getAndIncrement()) < Math.min(MAX_ATTEMPTS, best.get()) && !stop.getAsBoolean()) {
+                    int attempt = i;
+                    long[] bits = candidate(stream, attempt, rows, cols, mineCount, safeR, safeC);
+                    BooleanSupplier cancelled = () -> best.get() < attempt || stop.getAsBoolean();
+                    if (!solvable(bits, rows, cols, mineCount, safeR, safeC, cancelled)) continue;
+                    synchronized (lock) {
+                        if (attempt < best.get()) {
+                            best.set(attempt);
+                            found[0] = bits;
+                        }
+                    }
+                }
+            }
+        }
+
+        int workers = parallel ? Math.max(1, ForkJoinPool.getCommonPoolParallelism()) : 1;
+        List<Attempts> tasks = new ArrayList<>(workers);
+        for (int w = 0; w < workers; w++) tasks.add(new Attempts());
+        if (workers == 1) tasks.get(0).compute();
+        else ForkJoinTask.invokeAll(tasks);
+        synchronized (lock) {
+            return found[0];
+        }
+    }
+
+    private static long[] candidate(long stream, int attempt, int rows, int cols, int mineCount, int safeR, int safeC) {
+        SplittableRandom rng = new SplittableRandom(SeededMinePlacer.mix(stream, attempt));
+        return RandomMinePlacer.sample(rng, rows, cols, mineCount, safeR, safeC);
+    }
+
+    /** Plays the layout with the solver, revealing every proven safe cell each round. */
+    static boolean solvable(long[] mineBits, int rows, int cols, int mineCount, int safeR, int safeC,
+                            BooleanSupplier cancelled) {
+        Board board = new GridBoard(rows, cols, mineCount, new Fixed(mineBits)).reveal(safeR, safeC);
+        Solver solver = new Solver(board);
+        while (!board.isWon()) {
+            if (board.isLost() || cancelled.getAsBoolean()) return false;
+            List<Cell> safe = new ArrayList<>();
+            for (Cell cell : solver.safeCells()) {
+                if (board.visibleAt(cell.r(), cell.c()).isHidden()) safe.add(cell);
+            }
+            if (safe.isEmpty()) return false; // stuck: a guess would be needed
+            board = board.revealAll(safe);
+            solver.update(board);
+        }
+        return true;
+    }
+
+    /** Placer that hands out one fixed layout. */
+    private record Fixed(long[] mineBits) implements MinePlacer {
+        @Override
+        public int[][] placeMines(int rows, int cols, int mineCount, int safeR, int safeC) {
+            return AdjacencyCounter.grid(mineBits, rows, cols);
+        }
+
+        @Override
+        public long[] placeMineBits(int rows, int cols, int mineCount, int safeR, int safeC) {
+            return mineBits;
+        }
+    }
+
+    /* ------------ pooled layouts ------------ */
+
+    /** Zero cells connected to the (zero) start cell: opening any of them reveals the same area. */
+    private static BitSet opening(long[] mineBits, int rows, int cols, int sr, int sc) {
+        byte[] layout = AdjacencyCounter.count(mineBits, rows, cols);
+        BitSet zeros = new BitSet(rows * cols);
+        int start = sr * cols + sc;
+        if (layout[start] != 0) {
+            zeros.set(start); // clipped safe zone on a dense board: only the cell itself
+            return zeros;
+        }
+        IntList queue = new IntList();
+        queue.add(start);
+        zeros.set(start);
+        for (int k = 0; k < queue.size(); k++) {
+            int i = queue.get(k);
+            int r = i / cols, c = i - r * cols;
+            for (int nr = Math.max(0, r - 1); nr <= Math.min(rows - 1, r + 1); nr++) {
+                for (int nc = Math.max(0, c - 1); nc <= Math.min(cols - 1, c + 1); nc++) {
+                    int j = nr * cols + nc;
+                    if (layout[j] != 0 || zeros.get(j)) continue;
+                    zeros.set(j);
+                    queue.add(j);
+                }
+            }
+        }
+        return zeros;
+    }
+
+    /** Cell of the stored layout that symmetry {@code t} shows at (r, c). */
+    static int source(int t, int rows, int cols, int r, int c) {
+        if (t >= 4) { // transposed first (square boards only)
+            int swap = r;
+            r = c;
+            c = swap;
+        }
+        if ((t & 1) != 0) c = cols - 1 - c;
+        if ((t & 2) != 0) r = rows - 1 - r;
+        return r * cols + c;
+    }
+
+    /** The layout as symmetry {@code t} shows it; {@code mineBits} itself for the identity. */
+    static long[] transform(long[] mineBits, int t, int rows, int cols) {
+        if (t == 0) return mineBits;
+        long[] out = new long[mineBits.length];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                int from = source(t, rows, cols, r, c);
+                if ((mineBits[from >>> 6] & 1L << from) != 0) {
+                    int to = r * cols + c;
+                    out[to >>> 6] |= 1L << to;
+                }
+            }
+        }
+        return out;
+    }
+}
@@ -0,0 +1,161 @@
+package core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Continues a {@link FloodFill} that turned out to be huge on the common
+ * fork-join pool. The grid is cut into 128x128 blocks and the work runs in
+ * rounds: every block with pending cells floods everything it can reach
+ * inside itself, and neighbours that fall in another block are posted to
+ * that block for the next round. A block only touches its own cells, so the
+ * rounds need no locks. Messages are merged in block order, so the revealed
+ * set equals the sequential one and the log order is the same on every run.
+ */
+final class ParallelFloodFill {
+    private static final int BLOCK_BITS = 7; // 128x128 cells per block
+
+    private ParallelFloodFill() { }
+
+    /**
+     * Expands the revealed zero cells {@code frontier[from, to)} to the end.
+     *
+     * @return number of cells switched to revealed
+     */
+    static int expand(CellStore.Editor cells, int rows, int cols, int[] frontier, int from, int to, IntList revealedOut) {
+        int blockCols = ((cols - 1) >>> BLOCK_BITS) + 1;
+        int blockCount = (((rows - 1) >>> BLOCK_BITS) + 1) * blockCols;
+        IntList[] inbox = new IntList[blockCount];
+        boolean[] prepared = new boolean[blockCount];
+
+        // neighbours of the frontier become the first round's visits
+        for (int k = from; k < to; k++) {
+            int i = frontier[k];
+            int r = i / cols, c = i - r * cols;
+            for (int nr = Math.max(0, r - 1); nr <= Math.min(rows - 1, r + 1); nr++) {
+                for (int nc = Math.max(0, c - 1); nc <= Math.min(cols - 1, c + 1); nc++) {
+                    post(inbox, blockCols, cols, nr * cols + nc);
+                }
+            }
+        }
+
+        int revealed = 0;
+        List<Block> round = new ArrayList<>();
+        while (true) {
+            round.clear();
+            for (int b = 0; b < blockCount; b++) {
+                if (inbox[b] == null) continue;
+                if (!prepared[b]) {
+                    // copy the block's tiles up front; workers then only hit the editor's tile cache
+                    prepare(cells, rows, cols, blockCols, b);
+                    prepared[b] = true;
+                }
+                round.add(new Block(cells, rows, cols, blockCols, b, inbox[b]));
+                inbox[b] = null;
+            }
+            if (round.isEmpty()) return revealed;
+            ForkJoinTask.invokeAll(round);
+
+            for (Block block : round) {
+                revealed += block.log.size();
+                revealedOut.addAll(block.log);
+                for (int k = 0; k < block.outbox.size(); k++) post(inbox, blockCols, cols, block.outbox.get(k));
+            }
+        }
+    }
+
+    private static int blockOf(int blockCols, int cols, int i) {
+        int r = i / cols, c = i - r * cols;
+        return (r >>> BLOCK_BITS) * blockCols + (c >>> BLOCK_BITS);
+    }
+
+    private static void post(IntList[] inbox, int blockCols, int cols, int i) {
+        int b = blockOf(blockCols, cols, i);
+        if (inbox[b] == null) inbox[b] = new IntList();
+        inbox[b].add(i);
+    }
+
+    private static void prepare(CellStore.Editor cells, int rows, int cols, int blockCols, int block) {
+        int r0 = (block / blockCols) << BLOCK_BITS, c0 = (block % blockCols) << BLOCK_BITS;
+        int r1 = Math.min(rows, r0 + (1 << BLOCK_BITS)), c1 = Math.min(cols, c0 + (1 << BLOCK_BITS));
+        int lastTile = -1;
+        for (int r = r0; r < r1; r++) {
+            int first = (r * cols + c0) >>> CellStore.LEAF_BITS;
+            int last = (r * cols + c1 - 1) >>> CellStore.LEAF_BITS;
+            for (int t = Math.max(first, lastTile + 1); t <= last; t++) cells.writableTile(t);
+            lastTile = Math.max(lastTile, last);
+        }
+    }
+
+    /** One block's share of a round. */
+    private static final class Block extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final CellStore.Editor cells;
+        private final int rows, cols;
+        private final int r0, r1, c0, c1; // the block's cells, half-open ranges
+        private final IntList visits;
+        final IntList log = new IntList();
+        final IntList outbox = new IntList();
+        private int[] queue = new int[64];
+        private int head, tail;
+
+        Block(CellStore.Editor cells, int rows, int cols, int blockCols, int block, IntList visits) {
+            this.cells = cells;
+            this.rows = rows;
+            this.cols = cols;
+            this.r0 = (block / blockCols) << BLOCK_BITS;
+            this.c0 = (block % blockCols) << BLOCK_BITS;
+            this.r1 = Math.min(rows, r0 + (1 << BLOCK_BITS));
+            this.c1 = Math.min(cols, c0 + (1 << BLOCK_BITS));
+            this.visits = visits;
+        }
+
+        @Override
+        protected void compute() {
+            for (int k = 0; k < visits.size(); k++) {
+                int i = visits.get(k);
+                if (visit(i)) enqueue(i);
+            }
+            while (head < tail) {
+                int i = queue[head++];
+                int r = i / cols, c = i - r * cols;
+                for (int nr = Math.max(0, r - 1); nr <= Math.min(rows - 1, r + 1); nr++) {
+                    boolean rowInside = nr >= r0 && nr < r1;
+                    for (int nc = Math.max(0, c - 1); nc <= Math.min(cols - 1, c + 1); nc++) {
+                        int j = nr * cols + nc;
+                        if (!rowInside || nc < c0 || nc >= c1) outbox.add(j);
+                        else if (visit(j)) enqueue(j);
+                    }
+                }
+            }
+        }
+
+        private void enqueue(int i) {
+            if (tail == queue.length) {
+                // reclaim the consumed prefix before growing
+                if (head > queue.length / 2) {
+                    System.arraycopy(queue, head, queue, 0, tail - head);
+                    tail -= head;
+                    head = 0;
+                } else {
+                    queue = Arrays.copyOf(queue, queue.length * 2);
+                }
+            }
+            queue[tail++] = i;
+        }
+
+        /** Reveals a hidden cell; true when it is a zero cell that must spread further. */
+        private boolean visit(int i) {
+            byte[] tile = cells.writableTile(i >>> CellStore.LEAF_BITS);
+            byte cell = tile[i & CellStore.LEAF_MASK];
+            if ((cell & CellStore.STATE_MASK) != CellStore.HIDDEN) return false;
+            tile[i & CellStore.LEAF_MASK] = (byte) ((cell & ~CellStore.STATE_MASK) | CellStore.REVEALED);
+            log.add(i);
+            return (cell & CellStore.LAYOUT_MASK) == 0;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package core;
+
+import java.util.Objects;
+
+/**
+ * A seeded game reduced to what the player has seen: each cell's visible
+ * state at two bits per cell, the counters, and the seed instead of the
+ * layout. Holding many parked games costs roughly a quarter byte per cell;
+ * {@link #resume()} recomputes mines and counts from the seed.
+ */
+public final class ParkedGame {
+    final int rows;
+    final int cols;
+    final int mines;
+    final long seed;
+    final int safeCell;      // row-major first click, -1 before the layout was placed
+    final long[] states;     // VisibleState ordinals, 32 cells per word
+    final boolean lost;
+    final int revealedCount;
+    final int flaggedCount;
+
+    ParkedGame(int rows, int cols, int mines, long seed, int safeCell, long[] states,
+               boolean lost, int revealedCount, int flaggedCount) {
+        this.rows = rows;
+        this.cols = cols;
+        this.mines = mines;
+        this.seed = seed;
+        this.safeCell = safeCell;
+        this.states = Objects.requireNonNull(states, "states");
+        this.lost = lost;
+        this.revealedCount = revealedCount;
+        this.flaggedCount = flaggedCount;
+    }
+
+    /** Shareable code for the layout, or null if the first click has not happened yet. */
+    public GameCode gameCode() {
+        return safeCell < 0 ? null : new GameCode(rows, cols, mines, safeCell / cols, safeCell % cols, seed);
+    }
+
+    /** The board as it was parked, with its layout recomputed. */
+    public GridBoard resume() {
+        return GridBoard.resume(this);
+    }
+
+    int stateAt(int index) {
+        return (int) (states[index >>> 5] >>> ((index & 31) << 1)) & 0x3;
+    }
+}
@@ -0,0 +1,188 @@
+package core;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Random placement with layouts computed ahead of the first click. Which
+ * cells must stay clear depends on the click, but only through its class:
+ * inside the board the 3x3 block around it, on an edge a 2x3 block, in a
+ * corner a 2x2 one. {@link #prepare} fills a small pool per board size and
+ * class on a low-priority background thread, each layout drawn with its clear
+ * block at a fixed spot near the top-left corner. A click then takes one and
+ * moves the block onto itself: a cyclic shift along the axes the class allows
+ * and mirroring for the far edges. Both are one-to-one on layouts, so the
+ * result is exactly as random as {@link RandomMinePlacer}'s, and the remap
+ * is a few word copies per row. Sizes not prepared, boards under 3x3 and
+ * boards too dense for a full clear block are placed directly.
+ */
+public final class PooledMinePlacer implements MinePlacer {
+    private static final int PER_CLASS = 2;  // ready layouts per size and click class
+    private static final int MAX_SIZES = 2;  // board sizes kept; the oldest is dropped
+
+    enum Zone {
+        INTERIOR(1, 1), ROW_EDGE(0, 1), COL_EDGE(1, 0), CORNER(0, 0);
+
+        final int r, c; // where the stored layouts keep their clear block
+
+        Zone(int r, int c) {
+            this.r = r;
+            this.c = c;
+        }
+    }
+
+    private record Size(int rows, int cols, int mines) { }
+
+    private final SplittableRandom rng; // guarded by itself
+    // guarded by itself; the least recently prepared size comes first
+    private final Map<Size, EnumMap<Zone, ArrayDeque<long[]>>> pool = new LinkedHashMap<>();
+    private final ExecutorService refill = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "layout-pool");
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        return t;
+    });
+
+    public PooledMinePlacer() {
+        this(new SplittableRandom());
+    }
+
+    public PooledMinePlacer(SplittableRandom rng) {
+        this.rng = rng;
+    }
+
+    @Override
+    public int[][] placeMines(int rows, int cols, int mineCount, int safeR, int safeC) {
+        return AdjacencyCounter.grid(placeMineBits(rows, cols, mineCount, safeR, safeC), rows, cols);
+    }
+
+    @Override
+    public long[] placeMineBits(int rows, int cols, int mineCount, int safeR, int safeC) {
+        Size size = new Size(rows, cols, mineCount);
+        if (poolable(size) && safeR >= 0 && safeR < rows && safeC >= 0 && safeC < cols) {
+            Zone zone = zoneOf(rows, cols, safeR, safeC);
+            long[] ready = take(size, zone);
+            if (ready != null) {
+                prepare(rows, cols, mineCount);
+                return remap(ready, rows, cols, zone, safeR, safeC);
+            }
+        }
+        return draw(rows, cols, mineCount, safeR, safeC);
+    }
+
+    /**
+     * Tops up the pool for one board size in the background; returns at once.
+     *
+     * @throws IllegalArgumentException for sizes no layout can be drawn for
+     */
+    public void prepare(int rows, int cols, int mineCount) {
+        RandomMinePlacer.checkSize(rows, cols, mineCount);
+        Size size = new Size(rows, cols, mineCount);
+        if (!poolable(size)) return;
+        synchronized (pool) {
+            EnumMap<Zone, ArrayDeque<long[]>> zones = pool.remove(size);
+            pool.put(size, zones != null ? zones : new EnumMap<>(Zone.class));
+            while (pool.size() > MAX_SIZES) pool.remove(pool.keySet().iterator().next());
+        }
+        refill.execute(() -> {
+            for (Zone zone : Zone.values()) {
+                while (true) {
+                    synchronized (pool) {
+                        EnumMap<Zone, ArrayDeque<long[]>> zones = pool.get(size);
+                        if (zones == null) return; // evicted meanwhile
+                        if (zones.computeIfAbsent(zone, z -> new ArrayDeque<>()).size() >= PER_CLASS) break;
+                    }
+                    long[] bits = draw(rows, cols, mineCount, zone.r, zone.c);
+                    synchronized (pool) {
+                        EnumMap<Zone, ArrayDeque<long[]>> zones = pool.get(size);
+                        if (zones == null) return;
+                        zones.get(zone).add(bits);
+                    }
+                }
+            }
+        });
+    }
+
+    private long[] take(Size size, Zone zone) {
+        synchronized (pool) {
+            EnumMap<Zone, ArrayDeque<long[]>> zones = pool.get(size);
+            ArrayDeque<long[]> ready = zones == null ? null : zones.get(zone);
+            return ready == null ? null : ready.poll();
+        }
+    }
+
+    private long[] draw(int rows, int cols, int mineCount, int safeR, int safeC) {
+        long streamSeed;
+        synchronized (rng) {
+            streamSeed = rng.nextLong();
+        }
+        return RandomMinePlacer.sample(new SplittableRandom(streamSeed), rows, cols, mineCount, safeR, safeC);
+    }
+
+    /** Boards where every click class keeps its full clear block. */
+    private static boolean poolable(Size size) {
+        return size.rows() >= 3 && size.cols() >= 3 && (long) size.rows() * size.cols() - size.mines() >= 9;
+    }
+
+    static Zone zoneOf(int rows, int cols, int r, int c) {
+        boolean rowEdge = r == 0 || r == rows - 1;
+        boolean colEdge = c == 0 || c == cols - 1;
+        if (rowEdge && colEdge) return Zone.CORNER;
+        if (rowEdge) return Zone.ROW_EDGE;
+        if (colEdge) return Zone.COL_EDGE;
+        return Zone.INTERIOR;
+    }
+
+    /**
+     * Moves a layout's clear block from its stored spot to the click: shifts
+     * cyclically along the free axes, then mirrors to reach the bottom or
+     * right edge. The block never wraps, since the shift stays within the
+     * click's class. Rows are moved up to 64 cells at a time.
+     */
+    static long[] remap(long[] bits, int rows, int cols, Zone zone, int r, int c) {
+        boolean flipRows = (zone == Zone.ROW_EDGE || zone == Zone.CORNER) && r == rows - 1;
+        boolean flipCols = (zone == Zone.COL_EDGE || zone == Zone.CORNER) && c == cols - 1;
+        int shiftR = zone == Zone.INTERIOR || zone == Zone.COL_EDGE ? r - zone.r : 0;
+        int shiftC = zone == Zone.INTERIOR || zone == Zone.ROW_EDGE ? c - zone.c : 0;
+        if (!flipRows && !flipCols && shiftR == 0 && shiftC == 0) return bits;
+
+        long[] out = new long[bits.length];
+        for (int sr = 0; sr < rows; sr++) {
+            int dr = sr + shiftR < rows ? sr + shiftR : sr + shiftR - rows;
+            if (flipRows) dr = rows - 1 - dr;
+            long from = (long) sr * cols, to = (long) dr * cols;
+            int wrap = cols - shiftC; // source column that lands on column 0
+            for (int sc = 0; sc < cols; ) {
+                int n = Math.min(64, (sc < wrap ? wrap : cols) - sc);
+                long v = read(bits, from + sc, n);
+                int dc = sc < wrap ? sc + shiftC : sc - wrap;
+                if (v != 0) {
+                    if (flipCols) write(out, to + cols - dc - n, n, Long.reverse(v) >>> (64 - n));
+                    else write(out, to + dc, n, v);
+                }
+                sc += n;
+            }
+        }
+        return out;
+    }
+
+    /** The {@code n} bits (1..64) starting at {@code pos}, lowest first. */
+    private static long read(long[] bits, long pos, int n) {
+        int w = (int) (pos >>> 6), s = (int) (pos & 63);
+        long v = bits[w] >>> s;
+        if (s != 0 && s + n > 64) v |= bits[w + 1] << (64 - s);
+        return n == 64 ? v : v & ((1L << n) - 1);
+    }
+
+    /** Sets the bits of {@code v} (n bits, 1..64) at {@code pos}; the target range is clear. */
+    private static void write(long[] bits, long pos, int n, long v) {
+        int w = (int) (pos >>> 6), s = (int) (pos & 63);
+        bits[w] |= v << s;
+        if (s != 0 && s + n > 64) bits[w + 1] |= v >>> (64 - s);
+    }
+}
@@ -1,13 +1,9 @@
 package core;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.HashSet;
-import java.util.List;
+import java.util.Arrays;
 import java.util.Objects;
 import java.util.Random;
-import java.util.Set;
+import java.util.random.RandomGenerator;
 
 public final class RandomMinePlacer implements MinePlacer {
     private final Random rng;
@@ -22,74 +18,103 @@ public final class RandomMinePlacer implements MinePlacer {
 
     @Override
     public int[][] placeMines(int rows, int cols, int mineCount, int safeR, int safeC) {
+        return AdjacencyCounter.grid(placeMineBits(rows, cols, mineCount, safeR, safeC), rows, cols);
+    }
+
+    /**
+     * Samples mine positions straight over the row-major index space with
+     * Floyd's algorithm, so the work is proportional to the number of picks
+     * rather than the board area. Dense boards pick the (fewer) clear cells
+     * instead and invert.
+     */
+    @Override
+    public long[] placeMineBits(int rows, int cols, int mineCount, int safeR, int safeC) {
+        return sample(rng, rows, cols, mineCount, safeR, safeC);
+    }
+
+    /** The sampling behind {@link #placeMineBits}, drawing from any generator. */
+    static long[] sample(RandomGenerator rng, int rows, int cols, int mineCount, int safeR, int safeC) {
+        checkSize(rows, cols, mineCount);
+        int size = rows * cols;
+
+        int[] safe = safeZone(rows, cols, mineCount, safeR, safeC);
+        int candidates = size - safe.length;
+        if (mineCount > candidates) {
+            throw new IllegalArgumentException("Too many mines for size/safe zone.");
+        }
+
+        long[] bits = new long[(size + 63) >>> 6];
+        boolean dense = mineCount > candidates / 2;
+        if (dense) {
+            // start from "everything but the safe zone is a mine" and pick cells to clear
+            for (int i = 0; i < bits.length; i++) bits[i] = -1L;
+            if ((size & 63) != 0) bits[bits.length - 1] = (1L << size) - 1;
+            for (int s : safe) bits[s >>> 6] &= ~(1L << s);
+        }
+
+        // Floyd: exactly 'picks' draws, each yielding a distinct candidate
+        int picks = dense ? candidates - mineCount : mineCount;
+        for (int j = candidates - picks; j < candidates; j++) {
+            int cell = toCell(rng.nextInt(j + 1), safe);
+            if (isSet(bits, cell) != dense) cell = toCell(j, safe); // already picked
+            bits[cell >>> 6] ^= 1L << cell;
+        }
+        return bits;
+    }
+
+    /** Rejects boards {@link #sample} cannot place, for callers that queue the work for later. */
+    static void checkSize(int rows, int cols, int mineCount) {
         if (rows <= 0 || cols <= 0) throw new IllegalArgumentException("Invalid board size");
-        if (mineCount < 0 || mineCount >= rows * cols)
+        long area = (long) rows * cols;
+        if (area > Integer.MAX_VALUE) throw new IllegalArgumentException("Invalid board size");
+        if (mineCount < 0 || mineCount >= area)
             throw new IllegalArgumentException("Invalid mine count");
+    }
 
-        int[][] result = new int[rows][cols];
-
-        List<int[]> safeCells = new ArrayList<>();
+    /** Safe cells around the first click as sorted row-major indices. */
+    private static int[] safeZone(int rows, int cols, int mineCount, int safeR, int safeC) {
+        int[] cells = new int[9];
+        int[] dist = new int[9];
+        int n = 0;
         for (int dr = -1; dr <= 1; dr++) {
             for (int dc = -1; dc <= 1; dc++) {
                 int nr = safeR + dr;
                 int nc = safeC + dc;
                 if (nr >= 0 && nr < rows && nc >= 0 && nc < cols) {
-                    safeCells.add(new int[]{nr, nc});
+                    cells[n] = nr * cols + nc;
+                    dist[n] = distanceSquared(nr, nc, safeR, safeC);
+                    n++;
                 }
             }
         }
 
         int maxSafe = Math.max(1, rows * cols - mineCount);
-        if (safeCells.size() > maxSafe) {
-            safeCells.sort(Comparator.comparingInt(cell -> -distanceSquared(cell[0], cell[1], safeR, safeC)));
-            while (safeCells.size() > maxSafe) {
-                safeCells.remove(0); // trim farthest first
+        while (n > maxSafe) {
+            // trim farthest first (earliest wins ties)
+            int far = 0;
+            for (int k = 1; k < n; k++) {
+                if (dist[k] > dist[far]) far = k;
             }
+            System.arraycopy(cells, far + 1, cells, far, n - far - 1);
+            System.arraycopy(dist, far + 1, dist, far, n - far - 1);
+            n--;
         }
+        // row-major generation order keeps the indices sorted
+        return Arrays.copyOf(cells, n);
+    }
 
-        Set<Long> safeSet = new HashSet<>();
-        for (int[] cell : safeCells) {
-            safeSet.add(key(cell[0], cell[1]));
-        }
-
-        List<int[]> candidates = new ArrayList<>(rows * cols - safeSet.size());
-        for (int r = 0; r < rows; r++) {
-            for (int c = 0; c < cols; c++) {
-                if (!safeSet.contains(key(r, c))) {
-                    candidates.add(new int[]{r, c});
-                }
-            }
-        }
-
-        if (mineCount > candidates.size()) {
-            throw new IllegalArgumentException("Too many mines for size/safe zone.");
-        }
-
-        Collections.shuffle(candidates, rng);
-        for (int i = 0; i < mineCount; i++) {
-            int[] cell = candidates.get(i);
-            result[cell[0]][cell[1]] = -1;
-        }
-
-        for (int r = 0; r < rows; r++) {
-            for (int c = 0; c < cols; c++) {
-                if (result[r][c] == -1) continue;
-                int count = 0;
-                for (int dr = -1; dr <= 1; dr++) {
-                    for (int dc = -1; dc <= 1; dc++) {
-                        if (dr == 0 && dc == 0) continue;
-                        int nr = r + dr;
-                        int nc = c + dc;
-                        if (nr >= 0 && nr < rows && nc >= 0 && nc < cols && result[nr][nc] == -1) {
-                            count++;
-                        }
-                    }
-                }
-                result[r][c] = count;
-            }
+    /** Maps the k-th non-safe cell to its row-major index. */
+    private static int toCell(int k, int[] sortedSafe) {
+        int cell = k;
+        for (int s : sortedSafe) {
+            if (s <= cell) cell++;
+            else break;
         }
+        return cell;
+    }
 
-        return result;
+    private static boolean isSet(long[] bits, int i) {
+        return (bits[i >>> 6] & (1L << i)) != 0;
     }
 
     private static int distanceSquared(int r, int c, int sr, int sc) {
@@ -97,8 +122,4 @@ public final class RandomMinePlacer implements MinePlacer {
         int dc = c - sc;
         return dr * dr + dc * dc;
     }
-
-    private static long key(int r, int c) {
-        return (((long) r) << 32) ^ (c & 0xffffffffL);
-    }
 }
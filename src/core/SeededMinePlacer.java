@@ -0,0 +1,57 @@
+package core;
+
+import java.util.SplittableRandom;
+
+/**
+ * Mine placement that is a pure function of the board parameters and a seed:
+ * the same {@code (rows, cols, mines, safeR, safeC, seed)} always yields the
+ * same layout. Boards placed this way can be shared as a {@link GameCode} and
+ * parked without their layout (see {@link GridBoard#park()}).
+ */
+public final class SeededMinePlacer implements MinePlacer {
+    private final long seed;
+
+    public SeededMinePlacer(long seed) {
+        this.seed = seed;
+    }
+
+    /** A placer with a fresh random seed. */
+    public static SeededMinePlacer random() {
+        return new SeededMinePlacer(new SplittableRandom().nextLong());
+    }
+
+    public long seed() {
+        return seed;
+    }
+
+    @Override
+    public int[][] placeMines(int rows, int cols, int mineCount, int safeR, int safeC) {
+        return AdjacencyCounter.grid(placeMineBits(rows, cols, mineCount, safeR, safeC), rows, cols);
+    }
+
+    @Override
+    public long[] placeMineBits(int rows, int cols, int mineCount, int safeR, int safeC) {
+        return RandomMinePlacer.sample(generator(rows, cols, mineCount, safeR, safeC), rows, cols, mineCount, safeR, safeC);
+    }
+
+    /** Independent stream for one set of parameters; split it for further sub-streams. */
+    SplittableRandom generator(int rows, int cols, int mineCount, int safeR, int safeC) {
+        long h = mix(seed, rows);
+        h = mix(h, cols);
+        h = mix(h, mineCount);
+        h = mix(h, safeR);
+        h = mix(h, safeC);
+        return new SplittableRandom(h);
+    }
+
+    /** Folds a value into a hash (the 64-bit finaliser from MurmurHash3). */
+    static long mix(long h, long value) {
+        h ^= value;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,442 @@
+package core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Finds cells that are provably safe or provably mined from the revealed
+ * numbers alone. The solver follows one game: call {@link #update} with each
+ * new board version and it re-solves only the frontier components the move
+ * changed (see {@link Frontier}), in parallel when a move touches many.
+ * Proven cells are settled into the frontier right away and the components
+ * they split are solved again, until nothing more follows.
+ * <p>
+ * A component is solved by backtracking over its cells: a cell is decided
+ * when no assignment satisfying every constraint gives it the other value.
+ * Each search has a node budget, so a pathological component leaves some
+ * cells undecided rather than stalling the move; whatever is reported is
+ * always proven. The total mine count is not used, which keeps components
+ * independent. Not thread-safe.
+ */
+public final class Solver {
+    private static final int PARALLEL_MIN_COMPONENTS = 8;
+    private static final int SEARCH_BUDGET = 200_000; // search nodes per component
+
+    private final Frontier frontier = new Frontier();
+
+    public Solver(Board board) {
+        update(board);
+    }
+
+    public Board board() {
+        return frontier.board();
+    }
+
+    Frontier frontier() {
+        return frontier;
+    }
+
+    /** Moves to {@code next}; boards that do not follow the current one are solved from scratch. */
+    public void update(Board next) {
+        Frontier.Change change = frontier.update(next);
+        while (!change.added().isEmpty()) {
+            Result found = solveAll(change.added());
+            if (found.safe.length == 0 && found.mines.length == 0) break;
+            change = frontier.settle(found.safe, found.mines);
+        }
+    }
+
+    /** Unrevealed cells that cannot hold a mine, in row-major order. Flagged cells are included. */
+    public List<Cell> safeCells() {
+        return cells(frontier.knownSafe());
+    }
+
+    /** Unrevealed cells that must hold a mine, in row-major order. Flagged cells are included. */
+    public List<Cell> mineCells() {
+        return cells(frontier.knownMines());
+    }
+
+    /** First hidden (unflagged) provably safe cell in row-major order, or null. */
+    public Cell nextSafe() {
+        Board board = frontier.board();
+        for (int i = frontier.nextKnownSafe(0); i >= 0; i = frontier.nextKnownSafe(i + 1)) {
+            Cell cell = cell(i);
+            if (board.visibleAt(cell.r(), cell.c()).isHidden()) return cell;
+        }
+        return null;
+    }
+
+    public boolean isSafe(int r, int c) {
+        return frontier.isKnownSafe(r * frontier.cols() + c);
+    }
+
+    public boolean isMine(int r, int c) {
+        return frontier.isKnownMine(r * frontier.cols() + c);
+    }
+
+    /** Solves each component and merges what they decide. */
+    private static Result solveAll(List<Frontier.Component> components) {
+        List<Result> results = new ArrayList<>(components.size());
+        if (components.size() < PARALLEL_MIN_COMPONENTS || ForkJoinPool.getCommonPoolParallelism() < 2) {
+            for (Frontier.Component component : components) results.add(solve(component));
+        } else {
+            List<Task> tasks = new ArrayList<>(components.size());
+            for (Frontier.Component component : components) tasks.add(new Task(component));
+            ForkJoinTask.invokeAll(tasks);
+            for (Task task : tasks) results.add(task.result);
+        }
+        IntList safe = new IntList(), mines = new IntList();
+        for (Result result : results) {
+            for (int i : result.safe) safe.add(i);
+            for (int i : result.mines) mines.add(i);
+        }
+        return new Result(safe.toArray(), mines.toArray());
+    }
+
+    private List<Cell> cells(int[] indices) {
+        List<Cell> out = new ArrayList<>(indices.length);
+        for (int i : indices) out.add(cell(i));
+        return out;
+    }
+
+    private Cell cell(int i) {
+        return new Cell(i / frontier.cols(), i % frontier.cols());
+    }
+
+    /** Decided cells of one component, as board indices. */
+    record Result(int[] safe, int[] mines) { }
+
+    private static final class Task extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        final Frontier.Component component;
+        Result result;
+
+        Task(Frontier.Component component) {
+            this.component = component;
+        }
+
+        @Override
+        protected void compute() {
+            result = solve(component);
+        }
+    }
+
+    /**
+     * Decides what can be decided in one component. Forced cells are settled
+     * by unit propagation first; the cells left open split into smaller
+     * groups that are searched one at a time. In each group the search finds
+     * one solution, then looks for a solution with the opposite value for
+     * every cell; each solution found also marks the cells it flips as open.
+     */
+    static Result solve(Frontier.Component component) {
+        Search search = new Search(component);
+        if (!search.propagate()) return new Result(new int[0], new int[0]); // contradictory
+        int n = component.vars.length;
+        boolean[] open = new boolean[n];
+        for (int[] group : search.groups()) {
+            byte[] first = search.find(group, -1, (byte) 0);
+            if (first == null) {
+                for (int v : group) open[v] = true; // over budget
+                continue;
+            }
+            for (int v : group) {
+                if (open[v]) continue;
+                byte[] other = search.find(group, v, (byte) (1 - first[v]));
+                if (other == null && !search.overBudget) continue;
+                open[v] = true;
+                if (other != null) {
+                    for (int u : group) if (other[u] != first[u]) open[u] = true;
+                }
+            }
+            for (int v : group) if (!open[v]) search.settle(v, first[v]);
+        }
+        int[] safeOut = new int[n], minesOut = new int[n];
+        int s = 0, m = 0;
+        for (int v = 0; v < n; v++) {
+            if (open[v]) continue;
+            if (search.value(v) == 1) minesOut[m++] = component.vars[v];
+            else safeOut[s++] = component.vars[v];
+        }
+        return new Result(Arrays.copyOf(safeOut, s), Arrays.copyOf(minesOut, m));
+    }
+
+    /**
+     * Search state over one component's cells, with running per-constraint
+     * sums. Cells settled by {@link #propagate} or {@link #settle} stay fixed;
+     * {@link #find} explores the rest of one group without recursion, so long
+     * frontiers cannot overflow the stack, and leaves the state as it found it.
+     */
+    static final class Search {
+        private final int n;
+        private final int[][] varsOf;        // per constraint, local cell indices
+        private final int[][] constraintsOf; // per cell, constraint indices
+        private final int[] target;
+        private final byte[] value;          // 0 safe, 1 mine, -1 unassigned
+        private final int[] assignedMines;
+        private final int[] unassigned;
+        private int budget;
+        boolean overBudget;
+
+        Search(Frontier.Component component) {
+            int[] vars = component.vars;
+            n = vars.length;
+            int k = component.constraints.size();
+            target = new int[k];
+            varsOf = new int[k][];
+            assignedMines = new int[k];
+            unassigned = new int[k];
+            int[] degree = new int[n];
+            for (int j = 0; j < k; j++) {
+                Frontier.Constraint constraint = component.constraints.get(j);
+                target[j] = constraint.mines();
+                varsOf[j] = new int[constraint.vars().length];
+                unassigned[j] = varsOf[j].length;
+                for (int t = 0; t < varsOf[j].length; t++) {
+                    int v = Arrays.binarySearch(vars, constraint.vars()[t]);
+                    varsOf[j][t] = v;
+                    degree[v]++;
+                }
+            }
+            constraintsOf = new int[n][];
+            for (int v = 0; v < n; v++) constraintsOf[v] = new int[degree[v]];
+            int[] fill = new int[n];
+            for (int j = 0; j < k; j++) {
+                for (int v : varsOf[j]) constraintsOf[v][fill[v]++] = j;
+            }
+            value = new byte[n];
+            Arrays.fill(value, (byte) -1);
+        }
+
+        byte value(int v) {
+            return value[v];
+        }
+
+        void settle(int v, byte b) {
+            assign(v, b);
+        }
+
+        /**
+         * Unit propagation: a constraint with all its mines placed makes the
+         * rest safe, one that needs all its open cells makes them mines.
+         *
+         * @return false when the constraints contradict each other
+         */
+        boolean propagate() {
+            int k = target.length;
+            int[] queue = new int[k + 1]; // ring buffer; one slot spare so full and empty differ
+            boolean[] queued = new boolean[k];
+            int head = 0, tail = 0;
+            for (int j = 0; j < k; j++) {
+                queue[tail++] = j;
+                queued[j] = true;
+            }
+            while (head != tail) {
+                int j = queue[head];
+                head = head + 1 == queue.length ? 0 : head + 1;
+                queued[j] = false;
+                if (assignedMines[j] > target[j] || assignedMines[j] + unassigned[j] < target[j]) return false;
+                if (unassigned[j] == 0) continue;
+                byte forced;
+                if (assignedMines[j] == target[j]) forced = 0;
+                else if (assignedMines[j] + unassigned[j] == target[j]) forced = 1;
+                else continue;
+                for (int v : varsOf[j]) {
+                    if (value[v] >= 0) continue;
+                    assign(v, forced);
+                    for (int other : constraintsOf[v]) {
+                        if (queued[other]) continue;
+                        queued[other] = true;
+                        queue[tail] = other;
+                        tail = tail + 1 == queue.length ? 0 : tail + 1;
+                    }
+                }
+            }
+            return true;
+        }
+
+        /** Open cells split into groups that share no constraint with open cells of other groups. */
+        List<int[]> groups() {
+            List<int[]> groups = new ArrayList<>();
+            boolean[] seen = new boolean[n];
+            int[] members = new int[n];
+            for (int start = 0; start < n; start++) {
+                if (seen[start] || value[start] >= 0) continue;
+                int size = 0;
+                members[size++] = start;
+                seen[start] = true;
+                for (int t = 0; t < size; t++) {
+                    for (int j : constraintsOf[members[t]]) {
+                        for (int u : varsOf[j]) {
+                            if (seen[u] || value[u] >= 0) continue;
+                            seen[u] = true;
+                            members[size++] = u;
+                        }
+                    }
+                }
+                groups.add(Arrays.copyOf(members, size));
+            }
+            return groups;
+        }
+
+        /**
+         * Some assignment of {@code group} satisfying every constraint with
+         * cell {@code fixed} set to {@code fixedValue} ({@code fixed < 0} for
+         * none), or null when there is none or {@link #overBudget} got set.
+         */
+        byte[] find(int[] group, int fixed, byte fixedValue) {
+            budget = SEARCH_BUDGET;
+            overBudget = false;
+            if (fixed >= 0) {
+                boolean feasible = assign(fixed, fixedValue);
+                byte[] found = feasible ? extend(group) : null;
+                unassign(fixed);
+                return found;
+            }
+            return extend(group);
+        }
+
+        private byte[] extend(int[] group) {
+            int[] order = new int[group.length];
+            int m = 0;
+            for (int v : group) if (value[v] < 0) order[m++] = v;
+            byte[] next = new byte[m]; // next value to try at each depth; 2 = both tried
+            byte[] found = null;
+            int p = 0;
+            while (p >= 0) {
+                if (p == m) {
+                    found = value.clone();
+                    break;
+                }
+                if (next[p] == 2) {
+                    next[p] = 0;
+                    if (--p >= 0) unassign(order[p]);
+                    continue;
+                }
+                if (--budget < 0) {
+                    overBudget = true;
+                    break;
+                }
+                int v = order[p];
+                if (assign(v, next[p]++)) p++;
+                else unassign(v);
+            }
+            // leave the state as it was
+            for (int t = Math.min(p, m) - 1; t >= 0; t--) unassign(order[t]);
+            return found;
+        }
+
+        /**
+         * Visits every solution of the unassigned cells, counting them by
+         * number of mines: {@code total[k]} solutions hold {@code k} mines and
+         * {@code mineIn[v][k]} of those put one on cell {@code v}.
+         *
+         * @return false when {@code budget} nodes were not enough or
+         *         {@code cancelled} answered true; the counts are then partial
+         */
+        boolean enumerate(long budget, double[] total, double[][] mineIn, BooleanSupplier cancelled) {
+            int[] order = new int[n];
+            int m = 0;
+            for (int v = 0; v < n; v++) if (value[v] < 0) order[m++] = v;
+            byte[] next = new byte[m];
+            int mines = 0;
+            long nodes = 0;
+            boolean complete = true;
+            int p = 0;
+            while (p >= 0) {
+                if (p == m || next[p] == 2) {
+                    if (p == m) {
+                        total[mines]++;
+                        for (int t = 0; t < m; t++) if (value[order[t]] == 1) mineIn[order[t]][mines]++;
+                    } else {
+                        next[p] = 0;
+                    }
+                    if (--p >= 0) {
+                        mines -= value[order[p]];
+                        unassign(order[p]);
+                    }
+                    continue;
+                }
+                if (++nodes > budget || ((nodes & 4095) == 0 && cancelled.getAsBoolean())) {
+                    complete = false;
+                    break;
+                }
+                int v = order[p];
+                byte b = next[p]++;
+                if (assign(v, b)) {
+                    mines += b;
+                    p++;
+                } else {
+                    unassign(v);
+                }
+            }
+            for (int t = Math.min(p, m) - 1; t >= 0; t--) unassign(order[t]);
+            return complete;
+        }
+
+        /**
+         * One solution of the unassigned cells found by trying each cell's
+         * values in random order, or null when the budget ran out. Samples
+         * are not exactly uniform over the solutions.
+         */
+        byte[] sample(SplittableRandom rng, long budget) {
+            int[] order = new int[n];
+            int m = 0;
+            for (int v = 0; v < n; v++) if (value[v] < 0) order[m++] = v;
+            byte[] next = new byte[m];
+            byte[] flip = new byte[m]; // value tried first at each depth
+            byte[] found = null;
+            long nodes = 0;
+            int p = 0;
+            if (m > 0) flip[0] = (byte) rng.nextInt(2);
+            while (p >= 0) {
+                if (p == m) {
+                    found = value.clone();
+                    break;
+                }
+                if (next[p] == 2) {
+                    next[p] = 0;
+                    if (--p >= 0) unassign(order[p]);
+                    continue;
+                }
+                if (++nodes > budget) break;
+                int v = order[p];
+                byte b = (byte) (next[p]++ ^ flip[p]);
+                if (assign(v, b)) {
+                    if (++p < m) flip[p] = (byte) rng.nextInt(2);
+                } else {
+                    unassign(v);
+                }
+            }
+            for (int t = Math.min(p, m) - 1; t >= 0; t--) unassign(order[t]);
+            return found;
+        }
+
+        /** Sets a cell and reports whether every constraint can still be met. */
+        private boolean assign(int v, byte b) {
+            value[v] = b;
+            boolean feasible = true;
+            for (int j : constraintsOf[v]) {
+                assignedMines[j] += b;
+                unassigned[j]--;
+                if (assignedMines[j] > target[j] || assignedMines[j] + unassigned[j] < target[j]) feasible = false;
+            }
+            return feasible;
+        }
+
+        private void unassign(int v) {
+            byte b = value[v];
+            for (int j : constraintsOf[v]) {
+                assignedMines[j] -= b;
+                unassigned[j]++;
+            }
+            value[v] = -1;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package ui.fx;
+
+import javafx.application.Platform;
+import core.Board;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Runs board operations in order on a dedicated worker thread so heavy
+ * actions (first-click placement, board-wide floods) never block the JavaFX
+ * thread. Operations submitted while the worker is busy are queued and then
+ * applied back to back as one batch, publishing only the batch's final board.
+ * {@link #reset} interrupts a batch still running for the old board, so
+ * operations that can take long (a no-guess placement search) stop early.
+ *
+ * <p>{@link #submit} and {@link #reset} must be called on the FX thread; the
+ * result and busy callbacks are delivered there too.
+ */
+final class BoardActionPipeline {
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "board-actions");
+        t.setDaemon(true);
+        return t;
+    });
+    private final Consumer<Board> onResult;
+    private final Consumer<Boolean> onBusy;
+
+    // shared with the worker, guarded by 'lock'
+    private final Object lock = new Object();
+    private final ArrayDeque<UnaryOperator<Board>> pending = new ArrayDeque<>();
+    private Board current;
+    private long epoch;
+    private boolean draining;
+    private Thread runner; // the worker while it runs a batch
+
+    // FX thread only
+    private int inFlight;
+
+    BoardActionPipeline(Board initial, Consumer<Board> onResult, Consumer<Boolean> onBusy) {
+        this.current = Objects.requireNonNull(initial, "initial");
+        this.onResult = Objects.requireNonNull(onResult, "onResult");
+        this.onBusy = Objects.requireNonNull(onBusy, "onBusy");
+    }
+
+    /** Starts over from a new board; queued and running operations for the old one are dropped. */
+    void reset(Board board) {
+        synchronized (lock) {
+            epoch++;
+            pending.clear();
+            current = Objects.requireNonNull(board, "board");
+            if (runner != null) runner.interrupt(); // its result is dropped anyway
+        }
+        if (inFlight > 0) {
+            inFlight = 0;
+            onBusy.accept(false);
+        }
+    }
+
+    void submit(UnaryOperator<Board> op) {
+        if (op == null) return;
+        boolean start;
+        synchronized (lock) {
+            pending.add(op);
+            start = !draining;
+            draining = true;
+        }
+        if (inFlight++ == 0) onBusy.accept(true);
+        if (start) worker.execute(this::drain);
+    }
+
+    private void drain() {
+        while (true) {
+            List<UnaryOperator<Board>> batch;
+            Board base;
+            long batchEpoch;
+            synchronized (lock) {
+                if (pending.isEmpty()) {
+                    draining = false;
+                    runner = null;
+                    Thread.interrupted(); // a reset after the last batch must not leak into later tasks
+                    return;
+                }
+                batch = new ArrayList<>(pending);
+                pending.clear();
+                base = current;
+                batchEpoch = epoch;
+                runner = Thread.currentThread();
+                Thread.interrupted(); // meant for a batch of an earlier epoch
+            }
+
+            Board result = base;
+            RuntimeException failure = null;
+            for (UnaryOperator<Board> op : batch) {
+                try {
+                    Board next = op.apply(result);
+                    if (next != null) result = next;
+                } catch (RuntimeException e) {
+                    failure = e; // skip the op, keep going with the rest of the batch
+                }
+            }
+
+            synchronized (lock) {
+                if (batchEpoch != epoch) continue; // a new game started meanwhile
+                current = result;
+            }
+            Board published = result;
+            int applied = batch.size();
+            RuntimeException error = failure;
+            Platform.runLater(() -> publish(batchEpoch, published, applied, error));
+        }
+    }
+
+    private void publish(long batchEpoch, Board result, int applied, RuntimeException error) {
+        synchronized (lock) {
+            if (batchEpoch != epoch) return;
+        }
+        onResult.accept(result);
+        inFlight = Math.max(0, inFlight - applied);
+        if (inFlight == 0) onBusy.accept(false);
+        if (error != null) throw error; // surface it on the FX thread like a synchronous action would
+    }
+}
@@ -1,16 +1,23 @@
 package ui.fx;
 
-import javafx.geometry.VPos;
+import javafx.animation.AnimationTimer;
+import javafx.animation.PauseTransition;
+import javafx.scene.SnapshotParameters;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.WritableImage;
 import javafx.scene.input.*;
 import javafx.scene.layout.Region;
 import javafx.scene.paint.Color;
-import javafx.scene.text.Font;
-import javafx.scene.text.TextAlignment;
+import javafx.scene.transform.Transform;
+import javafx.stage.Screen;
+import javafx.stage.Window;
+import javafx.util.Duration;
 import core.Board;
+import core.MineProbabilities;
 import core.VisibleState;
 
+import java.util.BitSet;
 import java.util.Objects;
 import java.util.function.Consumer;
 import java.util.function.UnaryOperator;
@@ -19,6 +26,13 @@ final class FxMinesweeperView extends Region {
     private static final double PAD = 8.0;
     private static final double BASE_CELL = 28.0;   // for zoom
     private static final double MIN_CELL  = 14.0;
+    private static final double ZOOM_STEP = 1.15;
+    private static final double MIN_FIT_CELL = 1.0;     // fit-to-window may shrink huge boards this far
+    private static final double PIXEL_MODE_CELL = 6.0;  // below this, cells are flat colours in a pixel buffer
+    private static final int STREAM_THRESHOLD = 4096;      // larger changes are streamed in over several frames
+    private static final long FRAME_BUDGET_NS = 4_000_000; // drawing budget per frame while streaming
+    private static final int STREAM_CHUNK = 256;           // cells drawn between budget checks
+    private static final Duration GESTURE_SETTLE = Duration.millis(150); // quiet time before the crisp re-render
 
     private Board board;
     private final Consumer<UnaryOperator<Board>> boardChangeListener;
@@ -32,9 +46,52 @@ final class FxMinesweeperView extends Region {
     private double panX = 0.0, panY = 0.0;
     private int hoverR = -1, hoverC = -1;
     private int selR = 0, selC = 0;
+    private Metrics metrics; // cached until size, zoom, pan or board dimensions change
+
+    // Input accumulated between pulses and applied once per frame by 'inputPulse'
+    private double queuedPanX, queuedPanY;
+    private double queuedZoom = 1.0;
+    private double pointerX = Double.NaN, pointerY = Double.NaN; // NaN when the pointer is outside
+    private boolean pointerMoved, repaintQueued;
+    // Pan/zoom gesture: frames reuse a snapshot of the last crisp render until the input settles
+    private boolean gestureActive;
+    private WritableImage gestureImage;   // null until the next gesture frame takes one
+    private WritableImage snapshotBuffer; // reused between gestures while the canvas size is unchanged
+    private double gestureScale;          // output scale the snapshot was taken at
+    private Metrics gestureBase;          // metrics the snapshot was rendered with
+    private TileSprites gestureSprites;   // atlas for exposed edges, scaled like the snapshot
+    private final PauseTransition gestureSettle = new PauseTransition(GESTURE_SETTLE);
+
+    private final AnimationTimer inputPulse = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            stop();
+            applyQueuedInput();
+        }
+    };
 
     // Theme for custom drawing
     private Theme theme = Theme.light();
+    private TileSprites sprites; // pre-rendered faces for 'theme' at the current cell size
+    private final PixelTileRenderer pixels = new PixelTileRenderer();
+
+    // Progressive display of a large change: cells still set in 'pending' are drawn from 'streamFrom'
+    private Board streamFrom;
+    private BitSet pending;
+    private int[] stream;
+    private int streamPos;
+    // mine probability overlay; the last result stays up until the next one arrives
+    private static final Color[] HEAT = heatColors(32);
+    private boolean heatmap;
+    private MineProbabilities.Heat heat;
+    private final HeatmapWorker heatWorker = new HeatmapWorker(this::showHeat);
+
+    private final AnimationTimer streamer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            streamStep();
+        }
+    };
 
     FxMinesweeperView(Board board, Consumer<UnaryOperator<Board>> onBoardChange) {
         this.board = Objects.requireNonNull(board, "board");
@@ -42,14 +99,15 @@ final class FxMinesweeperView extends Region {
 
         getChildren().add(canvas);
         setFocusTraversable(true);
+        gestureSettle.setOnFinished(e -> endGesture());
 
         // Mouse
         setOnMousePressed(e -> {
             requestFocus();
-            int[] cell = hit(e.getX(), e.getY());
-            if (cell == null) return;
-            int r = cell[0], c = cell[1];
-            selR = r; selC = c;
+            long cell = hit(e.getX(), e.getY());
+            if (cell < 0) return;
+            int r = (int) (cell >>> 32), c = (int) cell;
+            select(r, c);
 
             if (e.getButton() == MouseButton.SECONDARY) {
                 publish(b -> b.toggleFlag(r, c));
@@ -58,43 +116,38 @@ final class FxMinesweeperView extends Region {
             }
         });
 
-        setOnMouseMoved(e -> {
-            int[] cell = hit(e.getX(), e.getY());
-            int nr = (cell == null ? -1 : cell[0]);
-            int nc = (cell == null ? -1 : cell[1]);
-            if (nr != hoverR || nc != hoverC) {
-                hoverR = nr; hoverC = nc;
-                repaint();
-            }
-        });
-        setOnMouseExited(e -> {
-            if (hoverR != -1 || hoverC != -1) { hoverR = hoverC = -1; repaint(); }
-        });
+        // Hover, pan and zoom only record state here; the next pulse applies it (see applyQueuedInput)
+        setOnMouseMoved(e -> queuePointer(e.getX(), e.getY()));
+        setOnMouseExited(e -> queuePointer(Double.NaN, Double.NaN));
 
         // Trackpad/Mouse zoom (Ctrl/Cmd + wheel) + pinch
         addEventFilter(ScrollEvent.SCROLL, e -> {
             if (e.isControlDown() || e.isShortcutDown()) {
-                if (e.getDeltaY() > 0) zoomIn(); else zoomOut();
+                queuedZoom = e.getDeltaY() > 0 ? queuedZoom * ZOOM_STEP : queuedZoom / ZOOM_STEP;
             } else {
-                panBy(e.getDeltaX(), e.getDeltaY());
+                queuedPanX += e.getDeltaX();
+                queuedPanY += e.getDeltaY();
             }
+            inputPulse.start();
             e.consume();
         });
         addEventFilter(ZoomEvent.ZOOM, e -> {
-            setZoom(zoom * e.getZoomFactor());
+            queuedZoom *= e.getZoomFactor();
+            inputPulse.start();
             e.consume();
         });
 
         // Keyboard
         setOnKeyPressed(e -> {
+            int r = selR, c = selC; // the action runs later on the worker, after the selection may have moved
             switch (e.getCode()) {
-                case LEFT  -> { if (selC > 0) selC--; ensureSelectionVisible(); repaint(); }
-                case RIGHT -> { if (selC + 1 < board.cols()) selC++; ensureSelectionVisible(); repaint(); }
-                case UP    -> { if (selR > 0) selR--; ensureSelectionVisible(); repaint(); }
-                case DOWN  -> { if (selR + 1 < board.rows()) selR++; ensureSelectionVisible(); repaint(); }
-                case SPACE -> publish(b -> b.reveal(selR, selC));
-                case F     -> publish(b -> b.toggleFlag(selR, selC));
-                case ENTER -> publish(b -> b.chord(selR, selC));
+                case LEFT  -> moveSelection(0, -1);
+                case RIGHT -> moveSelection(0, 1);
+                case UP    -> moveSelection(-1, 0);
+                case DOWN  -> moveSelection(1, 0);
+                case SPACE -> publish(b -> b.reveal(r, c));
+                case F     -> publish(b -> b.toggleFlag(r, c));
+                case ENTER -> publish(b -> b.chord(r, c));
                 case PLUS, EQUALS -> zoomIn();
                 case MINUS        -> zoomOut();
                 case DIGIT0       -> zoomReset();
@@ -102,9 +155,9 @@ final class FxMinesweeperView extends Region {
             e.consume();
         });
 
-        // Repaint on size changes
-        widthProperty().addListener((obs, o, n) -> layoutAndPaint());
-        heightProperty().addListener((obs, o, n) -> layoutAndPaint());
+        // Repaint on size changes, once per pulse even when width and height both change
+        widthProperty().addListener((obs, o, n) -> queueRepaint());
+        heightProperty().addListener((obs, o, n) -> queueRepaint());
 
         layoutAndPaint();
     }
@@ -112,7 +165,10 @@ final class FxMinesweeperView extends Region {
     /* ------------ API for window ------------ */
 
     void setBoard(Board b) {
+        stopStream();
         this.board = Objects.requireNonNull(b, "board");
+        this.heat = null;
+        if (heatmap) heatWorker.request(b);
         this.selR = this.selC = 0;
         this.hoverR = this.hoverC = -1;
         resetViewTransforms();
@@ -120,8 +176,16 @@ final class FxMinesweeperView extends Region {
     }
 
     void applyBoard(Board b) {
+        Board previous = this.board;
         this.board = Objects.requireNonNull(b, "board");
-        repaint();
+        if (b.rows() != previous.rows() || b.cols() != previous.cols()) metrics = null;
+        if (heatmap) heatWorker.request(b);
+        boolean wasStreaming = pending != null;
+        stopStream();
+        int[] changed = b.changedCells(previous);
+        if (changed == null || wasStreaming) repaint();
+        else if (changed.length > STREAM_THRESHOLD) startStream(previous, changed);
+        else repaintCells(changed);
     }
 
     private void publish(UnaryOperator<Board> op) {
@@ -131,6 +195,25 @@ final class FxMinesweeperView extends Region {
     void setTheme(Theme t) {
         if (t == null) return;
         this.theme = t;
+        this.sprites = null;
+        repaint();
+    }
+
+    boolean isHeatmap() { return heatmap; }
+
+    /** Shows or hides the mine probability overlay (drawn in tile mode only). */
+    void setHeatmap(boolean on) {
+        if (on == heatmap) return;
+        heatmap = on;
+        heat = null;
+        if (on) heatWorker.request(board);
+        else heatWorker.cancel();
+        repaint();
+    }
+
+    private void showHeat(MineProbabilities.Heat h) {
+        if (!heatmap) return;
+        heat = h;
         repaint();
     }
 
@@ -138,6 +221,7 @@ final class FxMinesweeperView extends Region {
 
     void setFitToWindow(boolean fit) {
         this.fitToWindow = fit;
+        this.metrics = null;
         if (fit) {
             resetViewTransforms();
         }
@@ -145,8 +229,8 @@ final class FxMinesweeperView extends Region {
     }
 
     double zoom() { return zoom; }
-    void zoomIn()   { setZoom(zoom * 1.15); }
-    void zoomOut()  { setZoom(zoom / 1.15); }
+    void zoomIn()   { setZoom(zoom * ZOOM_STEP); }
+    void zoomOut()  { setZoom(zoom / ZOOM_STEP); }
     void zoomReset(){
         this.fitToWindow = false;
         this.zoom = 1.0;
@@ -156,28 +240,166 @@ final class FxMinesweeperView extends Region {
     }
 
     void setZoom(double z) {
+        applyZoom(z);
+        layoutAndPaint();
+    }
+
+    private void applyZoom(double z) {
         this.zoom = Math.max(0.5, Math.min(3.0, z));
         this.fitToWindow = false;
         clampPan();
-        layoutAndPaint();
+    }
+
+    /* ------------ Pulse-synchronised input ------------ */
+
+    private void queuePointer(double x, double y) {
+        pointerX = x;
+        pointerY = y;
+        pointerMoved = true;
+        inputPulse.start();
+    }
+
+    private void queueRepaint() {
+        repaintQueued = true;
+        inputPulse.start();
+    }
+
+    /** Applies everything queued since the last pulse with at most one full repaint. */
+    private void applyQueuedInput() {
+        boolean resized = repaintQueued;
+        boolean gesture = queuedZoom != 1.0 || queuedPanX != 0 || queuedPanY != 0;
+        if (gesture && !resized) beginGestureFrame(); // snapshot before the view moves
+        boolean viewChanged = resized;
+        if (resized) {
+            canvas.setWidth(getWidth());
+            canvas.setHeight(getHeight());
+            metrics = null;
+        }
+        if (queuedZoom != 1.0) {
+            applyZoom(zoom * queuedZoom);
+            viewChanged = true;
+        }
+        if (queuedPanX != 0 || queuedPanY != 0) {
+            applyPan(queuedPanX, queuedPanY);
+            viewChanged = true;
+        }
+        queuedZoom = 1.0;
+        queuedPanX = queuedPanY = 0;
+        repaintQueued = false;
+
+        // a pan or zoom moves the grid under a still pointer, so hover is re-hit either way
+        if (pointerMoved || viewChanged) {
+            pointerMoved = false;
+            long cell = Double.isNaN(pointerX) ? -1 : hit(pointerX, pointerY);
+            int r = cell < 0 ? -1 : (int) (cell >>> 32);
+            int c = cell < 0 ? -1 : (int) cell;
+            if (r != hoverR || c != hoverC) {
+                if (viewChanged || gestureActive) {
+                    hoverR = r;
+                    hoverC = c;
+                } else {
+                    setHover(r, c);
+                }
+            }
+        }
+        if (resized) repaint();
+        else if (viewChanged) paintGestureFrame();
+    }
+
+    /* ------------ Gesture frames ------------ */
+
+    private void beginGestureFrame() {
+        gestureActive = true;
+        gestureSettle.playFromStart();
+        if (gestureImage != null) return;
+        gestureBase = metrics();
+        gestureSprites = sprites(gestureBase);
+        gestureScale = outputScale(); // device pixels, or HiDPI pans show a half-resolution image
+        int w = (int) Math.ceil(canvas.getWidth() * gestureScale), h = (int) Math.ceil(canvas.getHeight() * gestureScale);
+        if (snapshotBuffer != null && (snapshotBuffer.getWidth() != w || snapshotBuffer.getHeight() != h)) {
+            snapshotBuffer = null;
+        }
+        SnapshotParameters params = new SnapshotParameters();
+        params.setFill(Color.TRANSPARENT);
+        params.setTransform(Transform.scale(gestureScale, gestureScale));
+        gestureImage = canvas.snapshot(params, snapshotBuffer);
+        snapshotBuffer = gestureImage;
+    }
+
+    /** Translates/scales the snapshot to the current view and draws only the tiles it does not cover. */
+    private void paintGestureFrame() {
+        Metrics m = metrics();
+        Metrics base = gestureBase;
+        double scale = m.cell / base.cell;
+        double x0 = m.ox - base.ox * scale, y0 = m.oy - base.oy * scale;
+        double x1 = x0 + gestureImage.getWidth() / gestureScale * scale;
+        double y1 = y0 + gestureImage.getHeight() / gestureScale * scale;
+
+        GraphicsContext g = canvas.getGraphicsContext2D();
+        g.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        g.drawImage(gestureImage, x0, y0, x1 - x0, y1 - y0);
+
+        // rows/columns whose tiles lie entirely inside the snapshot
+        int coveredRowFrom = (int) Math.ceil((y0 - m.oy) / m.cell);
+        int coveredRowTo = (int) Math.floor((y1 - m.oy) / m.cell) - 1;
+        int coveredColFrom = (int) Math.ceil((x0 - m.ox) / m.cell);
+        int coveredColTo = (int) Math.floor((x1 - m.ox) / m.cell) - 1;
+        for (int r = m.firstRow; r <= m.lastRow; r++) {
+            if (r < coveredRowFrom || r > coveredRowTo) {
+                for (int c = m.firstCol; c <= m.lastCol; c++) drawExposed(g, m, r, c);
+            } else {
+                for (int c = m.firstCol; c <= m.lastCol && c < coveredColFrom; c++) drawExposed(g, m, r, c);
+                for (int c = Math.max(m.firstCol, coveredColTo + 1); c <= m.lastCol; c++) drawExposed(g, m, r, c);
+            }
+        }
+    }
+
+    private void drawExposed(GraphicsContext g, Metrics m, int r, int c) {
+        gestureSprites.drawScaled(g, faceAt(r, c), m.ox + c * m.cell, m.oy + r * m.cell, m.cell);
+    }
+
+    private void endGesture() {
+        if (!gestureActive) return;
+        gestureActive = false;
+        repaint();
+        if (pending != null) streamer.start();
     }
 
     /* ------------ Layout / metrics ------------ */
 
     private static final class Metrics {
         final double cell, ox, oy, gridW, gridH;
-        Metrics(double cell, double ox, double oy, double gridW, double gridH) {
+        // tiles that may be on screen, including a one-cell margin
+        final int firstRow, lastRow, firstCol, lastCol;
+        Metrics(double cell, double ox, double oy, double gridW, double gridH, double w, double h, int rows, int cols) {
             this.cell = cell; this.ox = ox; this.oy = oy; this.gridW = gridW; this.gridH = gridH;
+            this.firstRow = visibleFrom(oy, cell);
+            this.lastRow = visibleTo(oy, cell, h, rows);
+            this.firstCol = visibleFrom(ox, cell);
+            this.lastCol = visibleTo(ox, cell, w, cols);
+        }
+
+        boolean onScreen(int r, int c) {
+            return r >= firstRow && r <= lastRow && c >= firstCol && c <= lastCol;
+        }
+
+        long visibleTiles() {
+            return (long) Math.max(0, lastRow - firstRow + 1) * Math.max(0, lastCol - firstCol + 1);
         }
     }
 
     private Metrics metrics() {
+        if (metrics == null) metrics = computeMetrics();
+        return metrics;
+    }
+
+    private Metrics computeMetrics() {
         double w = getWidth(), h = getHeight();
         int rows = board.rows(), cols = board.cols();
 
         double cell;
         if (fitToWindow) {
-            cell = Math.max(MIN_CELL, Math.min((w - 2*PAD) / cols, (h - 2*PAD) / rows));
+            cell = Math.max(MIN_FIT_CELL, Math.min((w - 2*PAD) / cols, (h - 2*PAD) / rows));
         } else {
             cell = Math.max(MIN_CELL, BASE_CELL * zoom);
         }
@@ -197,15 +419,16 @@ final class FxMinesweeperView extends Region {
             ox = clamp(baseX, minX, maxX);
             oy = clamp(baseY, minY, maxY);
         }
-        return new Metrics(cell, ox, oy, gridW, gridH);
+        return new Metrics(cell, ox, oy, gridW, gridH, w, h, rows, cols);
     }
 
-    private int[] hit(double mx, double my) {
+    /** Cell under the point packed as {@code row << 32 | col}, or -1 outside the grid. */
+    private long hit(double mx, double my) {
         Metrics m = metrics();
-        if (mx < m.ox || my < m.oy || mx >= m.ox + m.gridW || my >= m.oy + m.gridH) return null;
+        if (mx < m.ox || my < m.oy || mx >= m.ox + m.gridW || my >= m.oy + m.gridH) return -1;
         int c = (int)((mx - m.ox) / m.cell);
         int r = (int)((my - m.oy) / m.cell);
-        return board.inBounds(r, c) ? new int[]{r, c} : null;
+        return board.inBounds(r, c) ? (long) r << 32 | c : -1;
     }
 
     /* ------------ Painting ------------ */
@@ -214,76 +437,223 @@ final class FxMinesweeperView extends Region {
         // canvas fills Region; ScrollPane outside will add scrollbars if needed
         canvas.setWidth(getWidth());
         canvas.setHeight(getHeight());
+        metrics = null;
         repaint();
     }
 
     void repaint() {
+        gestureImage = null; // a gesture still in progress re-snapshots this render
+        Metrics m = metrics();
+        if (m.cell < PIXEL_MODE_CELL) {
+            repaintPixels(m);
+            return;
+        }
         GraphicsContext g = canvas.getGraphicsContext2D();
         g.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
 
+        // only tiles inside the viewport (plus a one-cell margin) are drawn
+        for (int r = m.firstRow; r <= m.lastRow; r++) {
+            for (int c = m.firstCol; c <= m.lastCol; c++) {
+                drawTile(g, m, r, c);
+            }
+        }
+    }
+
+    /** Redraws only the given row-major cells, or everything when that is cheaper. */
+    private void repaintCells(int[] cells) {
+        if (cells.length == 0) return;
         Metrics m = metrics();
-        int rows = board.rows(), cols = board.cols();
+        if (cells.length >= m.visibleTiles() || gestureImage != null) {
+            repaint();
+            return;
+        }
+        int cols = board.cols();
+        if (m.cell < PIXEL_MODE_CELL) {
+            if (!beginPixels(false)) {
+                repaintPixels(m);
+                return;
+            }
+            for (int i : cells) {
+                int r = i / cols, c = i - r * cols;
+                if (m.onScreen(r, c)) pixels.fillCell(m.ox + c * m.cell, m.oy + r * m.cell, m.cell, faceAt(r, c));
+            }
+            presentPixels(m);
+            return;
+        }
+        GraphicsContext g = canvas.getGraphicsContext2D();
+        for (int i : cells) {
+            int r = i / cols, c = i - r * cols;
+            if (m.onScreen(r, c)) drawTile(g, m, r, c);
+        }
+    }
 
-        // scale font by cell
-        g.setFont(Font.font(Math.max(12, m.cell * 0.6)));
-        g.setTextAlign(TextAlignment.CENTER);
-        g.setTextBaseline(VPos.CENTER);
-
-        // tiles
-        for (int r = 0; r < rows; r++) {
-            for (int c = 0; c < cols; c++) {
-                double x = m.ox + c * m.cell;
-                double y = m.oy + r * m.cell;
-
-                VisibleState state = board.visibleAt(r, c);
-                g.setFill(state == VisibleState.REVEALED ? theme.tileRevealed : theme.tileHidden);
-                g.fillRect(x, y, m.cell, m.cell);
-
-                // hover highlight
-                if (r == hoverR && c == hoverC && state != VisibleState.REVEALED) {
-                    g.setFill(theme.hoverOverlay);
-                    g.fillRect(x, y, m.cell, m.cell);
-                }
+    private void repaintCell(int r, int c) {
+        if (!board.inBounds(r, c)) return;
+        Metrics m = metrics();
+        if (!m.onScreen(r, c)) return;
+        if (gestureImage != null) {
+            repaint(); // the snapshot would paint over a lone tile on the next gesture frame
+            return;
+        }
+        if (m.cell < PIXEL_MODE_CELL) {
+            if (!beginPixels(false)) {
+                repaintPixels(m);
+                return;
+            }
+            pixels.fillCell(m.ox + c * m.cell, m.oy + r * m.cell, m.cell, faceAt(r, c));
+            presentPixels(m);
+            return;
+        }
+        drawTile(canvas.getGraphicsContext2D(), m, r, c);
+    }
 
-                // selection ring
-                if (r == selR && c == selC) {
-                    g.setStroke(theme.selectionStroke);
-                    g.setLineWidth(Math.max(2, m.cell * 0.06));
-                    g.strokeRect(x + 1, y + 1, m.cell - 2, m.cell - 2);
-                }
+    /* Pixel-buffer mode: same faces, one flat colour per cell, one image per frame. */
 
-                // border
-                g.setStroke(theme.tileBorder);
-                g.setLineWidth(1);
-                g.strokeRect(x, y, m.cell, m.cell);
-
-                // content
-                if (state == VisibleState.FLAGGED) {
-                    g.setFill(theme.flagFill);
-                    g.fillPolygon(new double[]{x + m.cell*0.28, x + m.cell*0.72, x + m.cell*0.28},
-                            new double[]{y + m.cell*0.25, y + m.cell*0.50, y + m.cell*0.75}, 3);
-                    g.setFill(theme.flagPole);
-                    g.fillRect(x + m.cell*0.25, y + m.cell*0.25, Math.max(2, m.cell*0.06), m.cell*0.5);
-                } else if (state == VisibleState.REVEALED) {
-                    int n = board.adjacentMines(r, c);
-                    if (n == -1) {
-                        g.setFill(theme.mine);
-                        double d = m.cell * 0.55;
-                        g.fillOval(x + (m.cell - d)/2, y + (m.cell - d)/2, d, d);
-                    } else if (n > 0) {
-                        g.setFill(theme.numberColor(n));
-                        g.fillText(Integer.toString(n), x + m.cell/2, y + m.cell/2);
-                    }
-                } else if (board.isLost() && board.isMine(r, c)) {
-                    g.setFill(theme.mine);
-                    double d = m.cell * 0.55;
-                    g.fillOval(x + (m.cell - d)/2, y + (m.cell - d)/2, d, d);
-                }
+    private void repaintPixels(Metrics m) {
+        beginPixels(true);
+        for (int r = m.firstRow; r <= m.lastRow; r++) {
+            for (int c = m.firstCol; c <= m.lastCol; c++) {
+                pixels.fillCell(m.ox + c * m.cell, m.oy + r * m.cell, m.cell, faceAt(r, c));
+            }
+        }
+        presentPixels(m);
+    }
+
+    private boolean beginPixels(boolean clear) {
+        return pixels.begin((int) Math.ceil(canvas.getWidth()), (int) Math.ceil(canvas.getHeight()), theme, clear);
+    }
+
+    private void presentPixels(Metrics m) {
+        GraphicsContext g = canvas.getGraphicsContext2D();
+        pixels.present(g);
+        // tiles are too small for the inset ring; outline the cell instead
+        if (board.inBounds(selR, selC) && m.onScreen(selR, selC)) {
+            g.setStroke(theme.selectionStroke);
+            g.setLineWidth(1);
+            g.strokeRect(m.ox + selC * m.cell - 1.5, m.oy + selR * m.cell - 1.5, m.cell + 3, m.cell + 3);
+        }
+    }
+
+    /* Streaming: the board is already authoritative, only its display is spread over frames. */
+
+    private void startStream(Board previous, int[] changed) {
+        streamFrom = previous;
+        stream = changed; // BFS order from the board, so the reveal grows outwards from the click
+        streamPos = 0;
+        pending = new BitSet(board.rows() * board.cols());
+        for (int i : changed) pending.set(i);
+        streamer.start();
+    }
+
+    private void streamStep() {
+        if (pending == null) return;
+        if (gestureActive) {
+            streamer.stop(); // resumed by endGesture; pending cells keep their previous look meanwhile
+            return;
+        }
+        Metrics m = metrics();
+        boolean pixelMode = m.cell < PIXEL_MODE_CELL;
+        if (pixelMode && !beginPixels(false)) {
+            stopStream();
+            repaint();
+            return;
+        }
+        GraphicsContext g = canvas.getGraphicsContext2D();
+        int cols = board.cols();
+        long deadline = System.nanoTime() + FRAME_BUDGET_NS;
+        while (streamPos < stream.length && System.nanoTime() < deadline) {
+            int end = Math.min(stream.length, streamPos + STREAM_CHUNK);
+            for (; streamPos < end; streamPos++) {
+                int i = stream[streamPos];
+                pending.clear(i);
+                int r = i / cols, c = i - r * cols;
+                if (!m.onScreen(r, c)) continue;
+                if (pixelMode) pixels.fillCell(m.ox + c * m.cell, m.oy + r * m.cell, m.cell, faceAt(r, c));
+                else drawTile(g, m, r, c);
             }
         }
+        if (pixelMode) presentPixels(m);
+        if (streamPos >= stream.length) stopStream();
+    }
+
+    private void stopStream() {
+        streamer.stop();
+        streamFrom = null;
+        pending = null;
+        stream = null;
+    }
+
+    /** First row/column whose tile may be on screen, given the grid origin along that axis. */
+    private static int visibleFrom(double origin, double cell) {
+        return Math.max(0, (int) Math.floor(-origin / cell) - 1);
+    }
+
+    /** Last row/column whose tile may be on screen. */
+    private static int visibleTo(double origin, double cell, double extent, int count) {
+        return Math.min(count - 1, (int) Math.floor((extent - origin) / cell) + 1);
+    }
+
+    private void drawTile(GraphicsContext g, Metrics m, int r, int c) {
+        double x = m.ox + c * m.cell;
+        double y = m.oy + r * m.cell;
+
+        sprites(m).draw(g, faceAt(r, c), x, y);
+
+        if (heat != null && !board.isLost() && !board.visibleAt(r, c).isRevealed()) {
+            double p = heat.at(r, c);
+            g.setFill(HEAT[(int) Math.round(Math.max(0, Math.min(1, p)) * (HEAT.length - 1))]);
+            g.fillRect(x, y, m.cell, m.cell);
+        }
+
+        // selection ring, inset so it never bleeds into neighbours that are not redrawn
+        if (r == selR && c == selC) {
+            double lw = Math.max(2, m.cell * 0.06);
+            g.setStroke(theme.selectionStroke);
+            g.setLineWidth(lw);
+            g.strokeRect(x + lw/2, y + lw/2, m.cell - lw, m.cell - lw);
+        }
+    }
+
+    private int faceAt(int r, int c) {
+        // cells a streamed reveal has not reached yet still show the previous board
+        Board source = pending != null && pending.get(r * board.cols() + c) ? streamFrom : board;
+        VisibleState state = source.visibleAt(r, c);
+        boolean shownMine = state == VisibleState.HIDDEN && source.isLost() && source.isMine(r, c);
+        boolean hover = r == hoverR && c == hoverC && state != VisibleState.REVEALED;
+        int adjacent = state == VisibleState.REVEALED ? source.adjacentMines(r, c) : 0;
+        return TileSprites.face(state, adjacent, shownMine, hover);
+    }
+
+    /** Translucent green (safe) to red (mine) ramp, shared by both themes. */
+    private static Color[] heatColors(int steps) {
+        Color[] ramp = new Color[steps + 1];
+        for (int k = 0; k <= steps; k++) {
+            ramp[k] = Color.hsb(120.0 * (1 - (double) k / steps), 0.85, 0.9, 0.45);
+        }
+        return ramp;
+    }
+
+    /** Sprite atlas for the current theme, cell size and output scale, re-rendered when any changes. */
+    private TileSprites sprites(Metrics m) {
+        double scale = outputScale();
+        if (sprites == null || !sprites.matches(theme, m.cell, scale)) {
+            sprites = TileSprites.render(theme, m.cell, scale);
+        }
+        return sprites;
+    }
+
+    /** Device pixels per layout pixel on the screen showing the view (2.0 on typical HiDPI). */
+    private double outputScale() {
+        Window window = getScene() == null ? null : getScene().getWindow();
+        return window != null ? window.getOutputScaleX() : Screen.getPrimary().getOutputScaleX();
     }
 
     private void panBy(double dx, double dy) {
+        applyPan(dx, dy);
+        repaint();
+    }
+
+    private void applyPan(double dx, double dy) {
         if (fitToWindow) {
             double currentCell = metrics().cell;
             zoom = Math.max(0.5, Math.min(3.0, currentCell / BASE_CELL));
@@ -292,7 +662,6 @@ final class FxMinesweeperView extends Region {
         panX += dx;
         panY += dy;
         clampPan();
-        repaint();
     }
 
     private void clampPan() {
@@ -307,10 +676,38 @@ final class FxMinesweeperView extends Region {
         double maxY = PAD;
         panX = clamp(PAD + panX, minX, maxX) - PAD;
         panY = clamp(PAD + panY, minY, maxY) - PAD;
+        metrics = null;
+    }
+
+    private void setHover(int r, int c) {
+        int oldR = hoverR, oldC = hoverC;
+        hoverR = r; hoverC = c;
+        repaintCell(oldR, oldC);
+        repaintCell(r, c);
+    }
+
+    private void select(int r, int c) {
+        int oldR = selR, oldC = selC;
+        selR = r; selC = c;
+        repaintCell(oldR, oldC);
+        repaintCell(r, c);
+    }
+
+    private void moveSelection(int dr, int dc) {
+        int r = Math.max(0, Math.min(board.rows() - 1, selR + dr));
+        int c = Math.max(0, Math.min(board.cols() - 1, selC + dc));
+        if (r == selR && c == selC) return;
+        int oldR = selR, oldC = selC;
+        selR = r; selC = c;
+        if (!ensureSelectionVisible()) {
+            repaintCell(oldR, oldC);
+            repaintCell(r, c);
+        }
     }
 
-    private void ensureSelectionVisible() {
-        if (fitToWindow) return;
+    /** Pans so the selection is on screen; returns true when it had to pan (and repainted). */
+    private boolean ensureSelectionVisible() {
+        if (fitToWindow) return false;
         Metrics m = metrics();
         double cell = m.cell;
         double x = m.ox + selC * cell;
@@ -325,13 +722,16 @@ final class FxMinesweeperView extends Region {
         else if (y + cell > h - PAD) dy = (h - PAD) - (y + cell);
         if (dx != 0 || dy != 0) {
             panBy(dx, dy);
+            return true;
         }
+        return false;
     }
 
     private void resetViewTransforms() {
         fitToWindow = true;
         zoom = 1.0;
         panX = panY = 0.0;
+        metrics = null;
     }
 
     private static double clamp(double value, double min, double max) {
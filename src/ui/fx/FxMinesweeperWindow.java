@@ -1,35 +1,67 @@
 package ui.fx;
 
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.input.KeyCombination;
 import javafx.scene.layout.*;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 import core.Board;
+import core.ChunkedBoard;
 import core.GridBoard;
-import core.RandomMinePlacer;
+import core.MinePlacer;
+import core.NoGuessMinePlacer;
+import core.PooledMinePlacer;
 
+import java.util.SplittableRandom;
 import java.util.function.UnaryOperator;
 
 public final class FxMinesweeperWindow {
+    private static final int ENDLESS = 3;                // preset index
+    private static final double ENDLESS_DENSITY = 0.2;  // about Advanced's share of mines
+
     private Board board;
     private FxMinesweeperView view;
+    private final BoardActionPipeline actions;
 
     // UI bits
     private final Label status = new Label("Ready");
     private final Label minesLeft = new Label("Mines: 000");
     private final ComboBox<String> presets = new ComboBox<>();
+    private final ToggleButton noGuessBtn = new ToggleButton("No guess");
+    private final ToggleButton fitBtn = new ToggleButton("Fit");
+    private final ToggleButton oddsBtn = new ToggleButton("Odds");
+    private final NoGuessMinePlacer noGuess = new NoGuessMinePlacer(); // keeps a few layouts ready per size
+    private final PooledMinePlacer random = new PooledMinePlacer();     // same, for plain random games
+    private final ProgressIndicator busy = new ProgressIndicator();
+    private final PauseTransition busyDelay = new PauseTransition(Duration.millis(150)); // no flicker for quick actions
     private boolean lastDarkTheme = false;
+    private int game;                  // bumped by every New, so late news from an old game is dropped
+    private boolean mayNeedGuess;      // No guess found no solvable layout in time for this game
+    private final SystemThemeWatcher systemTheme;
 
     public FxMinesweeperWindow(Stage stage, int rows, int cols, int mines) {
-        this.board = new GridBoard(rows, cols, mines, new RandomMinePlacer());
+        this.board = new GridBoard(rows, cols, mines, placer(rows, cols, mines));
         this.view  = new FxMinesweeperView(board, this::applyBoardAction);
+        this.actions = new BoardActionPipeline(board, this::showBoard, this::setBusy);
+        this.systemTheme = new SystemThemeWatcher(dark -> applyTheme(stage.getScene(), dark));
+        systemTheme.start(); // detection runs off the FX thread; the theme switches when it answers
 
         // ----- Top bar -----
         ToolBar bar = new ToolBar();
-        presets.getItems().addAll("Beginner (9x9,10)", "Intermediate (16x16,40)", "Advanced (16x30,99)");
+        presets.getItems().addAll("Beginner (9x9,10)", "Intermediate (16x16,40)", "Advanced (16x30,99)", "Endless");
         presets.getSelectionModel().select(presetIndex(rows, cols, mines));
+        presets.getSelectionModel().selectedIndexProperty().addListener((obs, was, now) -> {
+            switch (now.intValue()) { // get layouts ready before New is pressed
+                case 0 -> placer(9, 9, 10);
+                case 1 -> placer(16, 16, 40);
+                case 2 -> placer(16, 30, 99);
+                default -> { }
+            }
+        });
 
         Button newBtn = new Button("New");
         newBtn.setOnAction(e -> {
@@ -37,6 +69,7 @@ public final class FxMinesweeperWindow {
                 case 0 -> newGame(9, 9, 10);
                 case 1 -> newGame(16, 16, 40);
                 case 2 -> newGame(16, 30, 99);
+                case ENDLESS -> newEndlessGame();
                 default -> newGame(rows, cols, mines);
             }
         });
@@ -45,7 +78,6 @@ public final class FxMinesweeperWindow {
         customBtn.setOnAction(e -> openCustomDialog(stage));
 
         // Zoom controls
-        ToggleButton fitBtn = new ToggleButton("Fit");
         fitBtn.setSelected(true);
         fitBtn.setOnAction(e -> view.setFitToWindow(fitBtn.isSelected()));
 
@@ -56,6 +88,17 @@ public final class FxMinesweeperWindow {
         zoomIn.setOnAction(e -> view.zoomIn());
         zoom100.setOnAction(e -> view.zoomReset());
 
+        noGuessBtn.setTooltip(new Tooltip("New games never need a guess unless the status bar says so (takes effect on New)"));
+        noGuessBtn.setOnAction(e -> {
+            // Endless boards are chunked and place their own mines
+            if (noGuessBtn.isSelected() && board instanceof GridBoard) {
+                noGuess.prepare(board.rows(), board.cols(), board.totalMines());
+            }
+        });
+
+        oddsBtn.setTooltip(new Tooltip("Colour hidden cells by their chance of holding a mine"));
+        oddsBtn.setOnAction(e -> view.setHeatmap(oddsBtn.isSelected()));
+
         // Counters look
         minesLeft.setStyle("-fx-font-family: 'Monospaced'; -fx-font-weight: bold; -fx-background-color: #222; -fx-text-fill: #e53935; -fx-padding: 4 10 4 10; -fx-background-radius: 6;");
 
@@ -64,8 +107,9 @@ public final class FxMinesweeperWindow {
                 new Separator(), minesLeft,
                 new Separator(),
                 zoomOut, zoomIn, zoom100, fitBtn,
+                new Separator(), oddsBtn,
                 new Separator(),
-                newBtn, customBtn
+                newBtn, customBtn, noGuessBtn
         );
 
         // ----- Center (view in a resizable pane) -----
@@ -73,7 +117,11 @@ public final class FxMinesweeperWindow {
         center.setPadding(new Insets(6));
 
         // ----- Status bar -----
-        HBox bottom = new HBox(status);
+        busy.setPrefSize(16, 16);
+        busy.setVisible(false);
+        busy.setManaged(false);
+        busyDelay.setOnFinished(e -> { busy.setVisible(true); busy.setManaged(true); });
+        HBox bottom = new HBox(8, busy, status);
         bottom.setPadding(new Insets(6, 10, 6, 10));
         bottom.setStyle("-fx-background-color: -fx-shadow-highlight-color, -fx-outer-border, -fx-inner-border, -fx-body-color;");
 
@@ -92,13 +140,14 @@ public final class FxMinesweeperWindow {
         stage.setMinHeight(320);
         stage.show();
 
-        applyTheme(scene, detectSystemDark());
+        applyTheme(scene, systemTheme.isDark());
         updateUIState();
         view.requestFocus();
 
         stage.focusedProperty().addListener((obs, oldV, focused) -> {
-            if (focused) refreshTheme(scene);
+            if (focused) systemTheme.refresh();
         });
+        stage.setOnHidden(e -> systemTheme.close());
     }
 
     private int presetIndex(int r, int c, int m) {
@@ -109,23 +158,78 @@ public final class FxMinesweeperWindow {
     }
 
     private void newGame(int rows, int cols, int mines) {
-        this.board = new GridBoard(rows, cols, mines, new RandomMinePlacer());
+        game++;
+        mayNeedGuess = false;
+        this.board = new GridBoard(rows, cols, mines, placer(rows, cols, mines));
+        this.actions.reset(board);
         this.view.setBoard(board);
+        fitBtn.setDisable(false);
+        fitBtn.setSelected(true);
+        oddsBtn.setDisable(false);
         presets.getSelectionModel().select(presetIndex(rows, cols, mines));
         view.requestFocus();
         updateUIState();
     }
 
+    /**
+     * Starts a game on a {@link ChunkedBoard} as large as it goes; chunks are
+     * generated as reveals and the viewport reach them. Fitting to the window
+     * and the odds overlay both look at every cell, so they are off here.
+     */
+    private void newEndlessGame() {
+        view.setHeatmap(false); // before setBoard, which would start the overlay on the new board
+        oddsBtn.setSelected(false);
+        oddsBtn.setDisable(true);
+        game++;
+        mayNeedGuess = false;
+        this.board = ChunkedBoard.unbounded(ENDLESS_DENSITY, new SplittableRandom().nextLong());
+        this.actions.reset(board);
+        this.view.setBoard(board);
+        view.zoomReset(); // leaves fit-to-window: 100% from the top-left corner
+        fitBtn.setSelected(false);
+        fitBtn.setDisable(true);
+        presets.getSelectionModel().select(ENDLESS);
+        view.requestFocus();
+        updateUIState();
+    }
+
+    private MinePlacer placer(int rows, int cols, int mines) {
+        if (!noGuessBtn.isSelected()) {
+            random.prepare(rows, cols, mines);
+            return random;
+        }
+        noGuess.prepare(rows, cols, mines);
+        int forGame = game;
+        return noGuess.reporting(() -> Platform.runLater(() -> {
+            if (forGame != game) return; // a search New interrupted
+            mayNeedGuess = true;
+            updateUIState();
+        }));
+    }
+
     private void applyBoardAction(UnaryOperator<Board> op) {
-        if (op == null) return;
-        Board updated = op.apply(board);
-        if (updated == null) return;
+        // runs on the action worker; the result comes back through showBoard
+        actions.submit(op);
+    }
+
+    private void showBoard(Board updated) {
+        if (updated == board) return;
         this.board = updated;
         this.view.applyBoard(updated);
         updateUIState();
         view.requestFocus();
     }
 
+    private void setBusy(boolean working) {
+        if (working) {
+            busyDelay.playFromStart();
+        } else {
+            busyDelay.stop();
+            busy.setVisible(false);
+            busy.setManaged(false);
+        }
+    }
+
     private void openCustomDialog(Stage owner) {
         Dialog<int[]> dlg = new Dialog<>();
         dlg.initOwner(owner);
@@ -158,16 +262,14 @@ public final class FxMinesweeperWindow {
 
     private void updateUIState() {
         int left = Math.max(0, board.totalMines() - board.flaggedCount());
-        minesLeft.setText(String.format("Mines: %03d", left));
+        boolean endless = board instanceof ChunkedBoard;
+        minesLeft.setText(endless ? "Mines: ∞" : String.format("Mines: %03d", left));
         if (board.isLost())      status.setText("Game over — click New to play again. (Scroll to pan, pinch or Cmd/Ctrl+Wheel to zoom)");
         else if (board.isWon())  status.setText("You win! (Scroll to pan, pinch or Cmd/Ctrl+Wheel to zoom)");
+        else if (mayNeedGuess)   status.setText("No guess-free layout found in time: this game may need a guess");
         else                     status.setText("Left: reveal | Right: flag | Double: chord | Scroll pan | Arrows move | Space reveal | F flag | Enter chord");
     }
 
-    private void refreshTheme(Scene scene) {
-        applyTheme(scene, detectSystemDark());
-    }
-
     private void applyTheme(Scene scene, boolean dark) {
         if (scene == null) return;
         if (dark == lastDarkTheme && !scene.getStylesheets().isEmpty()) return;
@@ -196,36 +298,4 @@ public final class FxMinesweeperWindow {
             return java.net.URLEncoder.encode(s, java.nio.charset.StandardCharsets.UTF_8);
         } catch (Exception e) { return ""; }
     }
-
-    /**
-     * Best-effort OS theme detection (no AWT).
-     * macOS: checks 'AppleInterfaceStyle' via 'defaults'.
-     * Windows: reads 'AppsUseLightTheme' via 'reg' (0=dark,1=light).
-     * Linux: tries 'gsettings' (GNOME) color-scheme prefers-dark.
-     * If anything fails, defaults to light.
-     */
-    private boolean detectSystemDark() {
-        String os = System.getProperty("os.name", "").toLowerCase();
-        try {
-            if (os.contains("mac")) {
-                Process p = new ProcessBuilder("defaults", "read", "-g", "AppleInterfaceStyle").start();
-                p.waitFor();
-                String out = new String(p.getInputStream().readAllBytes());
-                return out.trim().equalsIgnoreCase("Dark");
-            } else if (os.contains("win")) {
-                Process p = new ProcessBuilder("reg", "query",
-                        "HKCU\\Software\\Microsoft\\Windows\\CurrentVersion\\Themes\\Personalize",
-                        "/v", "AppsUseLightTheme").start();
-                p.waitFor();
-                String out = new String(p.getInputStream().readAllBytes());
-                return out.contains("0x0"); // 0 = dark
-            } else { // Linux (GNOME)
-                Process p = new ProcessBuilder("gsettings", "get", "org.gnome.desktop.interface", "color-scheme").start();
-                p.waitFor();
-                String out = new String(p.getInputStream().readAllBytes()).toLowerCase();
-                return out.contains("dark");
-            }
-        } catch (Exception ignored) { }
-        return false;
-    }
 }
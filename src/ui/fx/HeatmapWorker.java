@@ -0,0 +1,63 @@
+package ui.fx;
+
+import javafx.application.Platform;
+import core.Board;
+import core.MineProbabilities;
+
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Computes the mine probability overlay on a low-priority background thread.
+ * Every request supersedes the previous one: a computation still running for
+ * an older board notices through its cancel check and stops, and only the
+ * latest request's result is delivered. The {@link MineProbabilities} model
+ * lives on the worker and follows the game, so each move recounts only the
+ * frontier components it changed.
+ *
+ * <p>{@link #request} and {@link #cancel} must be called on the FX thread;
+ * results are delivered there too.
+ */
+final class HeatmapWorker {
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "mine-heatmap");
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        return t;
+    });
+    private final Consumer<MineProbabilities.Heat> onResult;
+    private final AtomicLong generation = new AtomicLong();
+
+    private MineProbabilities model; // worker thread only
+
+    HeatmapWorker(Consumer<MineProbabilities.Heat> onResult) {
+        this.onResult = Objects.requireNonNull(onResult, "onResult");
+    }
+
+    void request(Board board) {
+        Objects.requireNonNull(board, "board");
+        long requested = generation.incrementAndGet();
+        BooleanSupplier cancelled = () -> generation.get() != requested;
+        worker.execute(() -> {
+            // the model follows every board, even superseded ones: a direct successor
+            // costs only the cells its move changed, while skipping ahead means a diff
+            if (model == null) model = new MineProbabilities(board);
+            else model.update(board);
+            if (cancelled.getAsBoolean()) return; // a newer request is already queued
+            MineProbabilities.Heat heat = model.compute(cancelled);
+            if (heat == null) return;
+            Platform.runLater(() -> {
+                if (!cancelled.getAsBoolean()) onResult.accept(heat);
+            });
+        });
+    }
+
+    /** Drops the running computation and any undelivered result. */
+    void cancel() {
+        generation.incrementAndGet();
+    }
+}
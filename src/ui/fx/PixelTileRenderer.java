@@ -0,0 +1,102 @@
+package ui.fx;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelBuffer;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+/**
+ * Rendering backend for tiny cells (fit-to-window on huge boards). Instead of
+ * one or more {@code GraphicsContext} calls per tile, each cell is written as
+ * a flat colour straight into an int-backed {@link PixelBuffer} and the whole
+ * frame goes to the canvas as a single image. Faces follow {@link TileSprites}
+ * so both renderers agree on what a cell shows.
+ */
+final class PixelTileRenderer {
+    private int width, height;
+    private IntBuffer pixels;
+    private PixelBuffer<IntBuffer> buffer;
+    private WritableImage image;
+
+    private Theme paletteTheme;
+    private final int[] palette = new int[TileSprites.FACES];
+
+    /**
+     * Prepares a frame of the given size; a full repaint clears it first.
+     * Returns false when the buffer had to be reallocated, i.e. it is blank.
+     */
+    boolean begin(int w, int h, Theme theme, boolean clear) {
+        w = Math.max(1, w);
+        h = Math.max(1, h);
+        boolean kept = true;
+        if (w != width || h != height || image == null) {
+            kept = false;
+            width = w;
+            height = h;
+            pixels = ByteBuffer.allocateDirect(w * h * 4).order(ByteOrder.nativeOrder()).asIntBuffer();
+            buffer = new PixelBuffer<>(w, h, pixels, PixelFormat.getIntArgbPreInstance());
+            image = new WritableImage(buffer);
+        } else if (clear) {
+            for (int i = 0, n = w * h; i < n; i++) pixels.put(i, 0);
+        }
+        if (theme != paletteTheme) {
+            buildPalette(theme);
+            paletteTheme = theme;
+        }
+        return kept;
+    }
+
+    void fillCell(double x, double y, double cell, int face) {
+        int x0 = Math.max(0, (int) Math.floor(x));
+        int y0 = Math.max(0, (int) Math.floor(y));
+        int x1 = Math.min(width, Math.max(x0 + 1, (int) Math.floor(x + cell)));
+        int y1 = Math.min(height, Math.max(y0 + 1, (int) Math.floor(y + cell)));
+        if (x0 >= x1 || y0 >= y1) return;
+        int argb = palette[face];
+        for (int py = y0; py < y1; py++) {
+            int row = py * width;
+            for (int px = x0; px < x1; px++) pixels.put(row + px, argb);
+        }
+    }
+
+    /** Publishes the pixels and draws them onto the canvas in one call. */
+    void present(GraphicsContext g) {
+        buffer.updateBuffer(b -> null); // whole buffer dirty
+        g.clearRect(0, 0, width, height);
+        g.drawImage(image, 0, 0);
+    }
+
+    private void buildPalette(Theme theme) {
+        Color hidden = theme.tileHidden;
+        Color hovered = blend(hidden, theme.hoverOverlay);
+        palette[TileSprites.HIDDEN] = argb(hidden);
+        palette[TileSprites.HIDDEN + 1] = argb(hovered);
+        palette[TileSprites.FLAG] = argb(theme.flagFill);
+        palette[TileSprites.FLAG + 1] = argb(blend(theme.flagFill, theme.hoverOverlay));
+        palette[TileSprites.HIDDEN_MINE] = argb(theme.mine);
+        palette[TileSprites.HIDDEN_MINE + 1] = argb(blend(theme.mine, theme.hoverOverlay));
+        palette[TileSprites.MINE] = argb(theme.mine);
+        palette[TileSprites.REVEALED] = argb(theme.tileRevealed);
+        for (int n = 1; n <= 8; n++) {
+            // numbers become a tint of the revealed colour, stronger for higher counts
+            palette[TileSprites.REVEALED + n] = argb(theme.tileRevealed.interpolate(theme.numberColor(n), 0.35 + n * 0.05));
+        }
+    }
+
+    private static Color blend(Color base, Color overlay) {
+        return base.interpolate(Color.color(overlay.getRed(), overlay.getGreen(), overlay.getBlue()), overlay.getOpacity());
+    }
+
+    private static int argb(Color c) {
+        int a = (int) Math.round(c.getOpacity() * 255);
+        int r = (int) Math.round(c.getRed() * c.getOpacity() * 255);
+        int g = (int) Math.round(c.getGreen() * c.getOpacity() * 255);
+        int b = (int) Math.round(c.getBlue() * c.getOpacity() * 255);
+        return a << 24 | r << 16 | g << 8 | b;
+    }
+}
@@ -0,0 +1,148 @@
+package ui.fx;
+
+import javafx.application.Platform;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Tracks whether the OS prefers a dark theme without ever blocking the JavaFX
+ * thread. The last answer is cached. On Linux a long-lived
+ * {@code gsettings monitor} pushes changes as they happen. Elsewhere, or when
+ * that is unavailable, {@link #refresh} re-queries on a background thread, at
+ * most once per {@link #MIN_REFRESH_MS}.
+ *
+ * <p>{@link #refresh} must be called on the FX thread; changes are delivered there too.
+ */
+final class SystemThemeWatcher {
+    private static final long MIN_REFRESH_MS = 5_000;
+    private static final long QUERY_TIMEOUT_MS = 2_000;
+    private static final String GNOME_SCHEMA = "org.gnome.desktop.interface";
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "theme-detect");
+        t.setDaemon(true);
+        return t;
+    });
+    private final Consumer<Boolean> onChange;
+    private final String os = System.getProperty("os.name", "").toLowerCase();
+
+    private volatile boolean dark;
+    private volatile Process monitor;
+
+    // FX thread only
+    private long lastQuery = Long.MIN_VALUE / 2;
+    private boolean querying;
+
+    SystemThemeWatcher(Consumer<Boolean> onChange) {
+        this.onChange = Objects.requireNonNull(onChange, "onChange");
+    }
+
+    /** Last detected preference; light until the first detection completes. */
+    boolean isDark() {
+        return dark;
+    }
+
+    /** Runs the first detection and, on Linux, starts the change monitor. */
+    void start() {
+        worker.execute(() -> {
+            publish(detect());
+            if (!os.contains("mac") && !os.contains("win")) startMonitor();
+        });
+        lastQuery = System.currentTimeMillis();
+    }
+
+    /** Re-checks in the background unless a monitor is pushing changes or the last check is recent. */
+    void refresh() {
+        if (monitor != null || querying) return;
+        long now = System.currentTimeMillis();
+        if (now - lastQuery < MIN_REFRESH_MS) return;
+        lastQuery = now;
+        querying = true;
+        worker.execute(() -> {
+            boolean result = detect();
+            Platform.runLater(() -> querying = false);
+            publish(result);
+        });
+    }
+
+    void close() {
+        Process p = monitor;
+        monitor = null;
+        if (p != null) p.destroy();
+        worker.shutdownNow();
+    }
+
+    private void publish(boolean detected) {
+        if (detected == dark) return;
+        dark = detected;
+        Platform.runLater(() -> onChange.accept(detected));
+    }
+
+    /**
+     * Best-effort OS theme detection (no AWT).
+     * macOS: checks 'AppleInterfaceStyle' via 'defaults'.
+     * Windows: reads 'AppsUseLightTheme' via 'reg' (0=dark,1=light).
+     * Linux: tries 'gsettings' (GNOME) color-scheme prefers-dark.
+     * If anything fails, defaults to light.
+     */
+    private boolean detect() {
+        try {
+            if (os.contains("mac")) {
+                return query("defaults", "read", "-g", "AppleInterfaceStyle").trim().equalsIgnoreCase("Dark");
+            } else if (os.contains("win")) {
+                return query("reg", "query",
+                        "HKCU\\Software\\Microsoft\\Windows\\CurrentVersion\\Themes\\Personalize",
+                        "/v", "AppsUseLightTheme").contains("0x0"); // 0 = dark
+            } else { // Linux (GNOME)
+                return query("gsettings", "get", GNOME_SCHEMA, "color-scheme").toLowerCase().contains("dark");
+            }
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static String query(String... command) throws IOException, InterruptedException {
+        Process p = new ProcessBuilder(command).redirectErrorStream(true).start();
+        // wait before reading: reading blocks until the process closes its output, so a hung
+        // command would never time out; the answers are a line or two and fit the pipe buffer
+        if (!p.waitFor(QUERY_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+            p.destroyForcibly();
+            return "";
+        }
+        return new String(p.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    /** Follows 'gsettings monitor' on the worker thread until it exits; refresh() takes over then. */
+    private void startMonitor() {
+        Process p;
+        try {
+            p = new ProcessBuilder("gsettings", "monitor", GNOME_SCHEMA, "color-scheme")
+                    .redirectErrorStream(true).start();
+        } catch (IOException e) {
+            return; // no gsettings: fall back to refreshing on focus
+        }
+        monitor = p;
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(p.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                // e.g. "color-scheme: 'prefer-dark'"
+                publish(line.toLowerCase().contains("dark"));
+            }
+        } catch (IOException ignored) {
+        } finally {
+            if (monitor == p) monitor = null;
+            p.destroy();
+        }
+    }
+}
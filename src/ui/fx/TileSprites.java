@@ -0,0 +1,113 @@
+package ui.fx;
+
+import javafx.geometry.VPos;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+import javafx.scene.transform.Transform;
+import core.VisibleState;
+
+/**
+ * Pre-rendered tile faces for one theme and cell size.
+ * Every distinct face is drawn once into a single atlas image, so painting
+ * the grid is a series of {@code drawImage} blits instead of polygons, ovals
+ * and text per cell. The atlas is rendered at the screen's output scale so
+ * faces stay sharp on HiDPI displays. Rebuild when the theme, the cell size
+ * or the output scale changes.
+ */
+final class TileSprites {
+    // face indices; the first three kinds have a hover variant right after them
+    static final int HIDDEN = 0;
+    static final int FLAG = 2;
+    static final int HIDDEN_MINE = 4; // unrevealed mine shown after a loss
+    static final int MINE = 6;
+    static final int REVEALED = 7;    // REVEALED + n for n adjacent mines
+    static final int FACES = REVEALED + 9;
+
+    private final Theme theme;
+    private final double cell;
+    private final double scale; // atlas pixels per layout pixel
+    private final int stride;
+    private final Image atlas;
+
+    private TileSprites(Theme theme, double cell, double scale, int stride, Image atlas) {
+        this.theme = theme;
+        this.cell = cell;
+        this.scale = scale;
+        this.stride = stride;
+        this.atlas = atlas;
+    }
+
+    static TileSprites render(Theme theme, double cell, double scale) {
+        int stride = (int) Math.ceil(cell) + 1;
+        Canvas scratch = new Canvas(stride * FACES, stride);
+        GraphicsContext g = scratch.getGraphicsContext2D();
+        g.setFont(Font.font(Math.min(cell, Math.max(12, cell * 0.6)))); // capped so text stays inside small faces
+        g.setTextAlign(TextAlignment.CENTER);
+        g.setTextBaseline(VPos.CENTER);
+
+        for (int face = 0; face < FACES; face++) {
+            double x = face * stride;
+            boolean revealed = face >= MINE;
+            g.setFill(revealed ? theme.tileRevealed : theme.tileHidden);
+            g.fillRect(x, 0, cell, cell);
+            if (!revealed && (face & 1) == 1) {
+                g.setFill(theme.hoverOverlay);
+                g.fillRect(x, 0, cell, cell);
+            }
+            // border; neighbours supply the other half of each shared edge
+            g.setStroke(theme.tileBorder);
+            g.setLineWidth(1);
+            g.strokeRect(x, 0, cell, cell);
+            drawContent(g, theme, face, x, cell);
+        }
+
+        SnapshotParameters params = new SnapshotParameters();
+        params.setFill(Color.TRANSPARENT);
+        params.setTransform(Transform.scale(scale, scale));
+        return new TileSprites(theme, cell, scale, stride, scratch.snapshot(params, null));
+    }
+
+    private static void drawContent(GraphicsContext g, Theme theme, int face, double x, double cell) {
+        if (face == FLAG || face == FLAG + 1) {
+            g.setFill(theme.flagFill);
+            g.fillPolygon(new double[]{x + cell*0.28, x + cell*0.72, x + cell*0.28},
+                    new double[]{cell*0.25, cell*0.50, cell*0.75}, 3);
+            g.setFill(theme.flagPole);
+            g.fillRect(x + cell*0.25, cell*0.25, Math.max(2, cell*0.06), cell*0.5);
+        } else if (face == HIDDEN_MINE || face == HIDDEN_MINE + 1 || face == MINE) {
+            g.setFill(theme.mine);
+            double d = cell * 0.55;
+            g.fillOval(x + (cell - d)/2, (cell - d)/2, d, d);
+        } else if (face > REVEALED) {
+            int n = face - REVEALED;
+            g.setFill(theme.numberColor(n));
+            g.fillText(Integer.toString(n), x + cell/2, cell/2);
+        }
+    }
+
+    boolean matches(Theme t, double cellSize, double outputScale) {
+        return theme == t && cell == cellSize && scale == outputScale;
+    }
+
+    /** Face for a cell; {@code adjacent} is -1 for mines as in {@code Board.adjacentMines}. */
+    static int face(VisibleState state, int adjacent, boolean shownMine, boolean hover) {
+        int hoverBit = hover ? 1 : 0;
+        if (state == VisibleState.FLAGGED) return FLAG + hoverBit;
+        if (state == VisibleState.REVEALED) return adjacent == -1 ? MINE : REVEALED + adjacent;
+        return (shownMine ? HIDDEN_MINE : HIDDEN) + hoverBit;
+    }
+
+    void draw(GraphicsContext g, int face, double x, double y) {
+        g.drawImage(atlas, face * stride * scale, 0, cell * scale, cell * scale, x, y, cell, cell);
+    }
+
+    /** Draws a face stretched to {@code size}; used while a gesture scales the view. */
+    void drawScaled(GraphicsContext g, int face, double x, double y, double size) {
+        g.drawImage(atlas, face * stride * scale, 0, cell * scale, cell * scale, x, y, size, size);
+    }
+}
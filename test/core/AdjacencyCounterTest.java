@@ -0,0 +1,77 @@
+package core;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Checks {@link AdjacencyCounter} against a naive eight-neighbour count.
+ * Sizes sit on both sides of the parallel threshold (1 << 16 cells), with
+ * widths around multiples of 64 and row counts that put band splits right
+ * on and just past the band height. The banded path runs on a private pool,
+ * so it is covered on a single-core machine too.
+ */
+public class AdjacencyCounterTest {
+    private static final int[][] SIZES = {
+            {1, 1}, {1, 70_000}, {70_000, 1}, {3, 3}, {9, 9}, {16, 30},
+            {255, 256}, {256, 256}, {257, 256}, {256, 255},  // just under, on and over the threshold
+            {1024, 64}, {1025, 64}, {1023, 65}, {512, 128}, {520, 127}, {1032, 63},
+            {300, 1000}, {30, 3000}, {33, 2049}, {700, 129}};
+
+    public void testCountsMatchNaiveCount() {
+        Random rng = new Random(20_240_703L);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int[] size : SIZES) {
+                int rows = size[0], cols = size[1];
+                for (double density : new double[]{0.0, 0.1, 0.5, 0.95}) {
+                    int mines = Math.min(rows * cols - 1, (int) (rows * cols * density));
+                    long[] bits = RandomMinePlacer.sample(rng, rows, cols, mines, rng.nextInt(rows), rng.nextInt(cols));
+                    byte[] expected = naive(bits, rows, cols);
+                    String what = rows + "x" + cols + ", " + mines + " mines";
+                    assertLayout(expected, AdjacencyCounter.count(bits, rows, cols), what);
+                    assertLayout(expected, AdjacencyCounter.count(bits, rows, cols, pool), what + " on 4 threads");
+
+                    int[][] grid = AdjacencyCounter.grid(bits, rows, cols);
+                    for (int i = 0; i < expected.length; i++) {
+                        int want = CellStore.isMine(expected[i]) ? -1 : expected[i];
+                        assert grid[i / cols][i % cols] == want : what + ": grid at " + i;
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static byte[] naive(long[] bits, int rows, int cols) {
+        byte[] layout = new byte[rows * cols];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                if (mine(bits, r * cols + c)) {
+                    layout[r * cols + c] = CellStore.MINE;
+                    continue;
+                }
+                int count = 0;
+                for (int dr = -1; dr <= 1; dr++) {
+                    for (int dc = -1; dc <= 1; dc++) {
+                        int nr = r + dr, nc = c + dc;
+                        if (nr >= 0 && nr < rows && nc >= 0 && nc < cols && mine(bits, nr * cols + nc)) count++;
+                    }
+                }
+                layout[r * cols + c] = (byte) count;
+            }
+        }
+        return layout;
+    }
+
+    private static boolean mine(long[] bits, int i) {
+        return (bits[i >>> 6] >>> i & 1) != 0;
+    }
+
+    private static void assertLayout(byte[] expected, byte[] actual, String what) {
+        assert actual.length == expected.length : what + ": length";
+        for (int i = 0; i < expected.length; i++) {
+            assert actual[i] == expected[i] : what + ": cell " + i + " is " + actual[i] + ", want " + expected[i];
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Plays random games on {@link BitBoard} and {@link GridBoard} side by side
+ * from the same layout and checks that every move leaves both in the same
+ * state. Widths cluster around multiples of 64 so the word-boundary paths of
+ * BitBoard's bit planes are covered. Plain assertions, run by Surefire's POJO
+ * provider (assertions are enabled there by default).
+ */
+public class BitBoardCrossCheckTest {
+    private static final int GAMES = 600;
+    private static final int MAX_MOVES = 300;
+    private static final int[] WIDTHS = {1, 2, 3, 5, 9, 16, 30, 63, 64, 65, 100, 127, 128, 129, 191, 200};
+
+    public void testRandomGamesMatchGridBoard() {
+        Random rng = new Random(20_240_611L);
+        for (int game = 0; game < GAMES; game++) {
+            int rows = 1 + rng.nextInt(rng.nextBoolean() ? 12 : 90);
+            int cols = WIDTHS[rng.nextInt(WIDTHS.length)];
+            int cells = rows * cols;
+            double density = new double[]{0.0, 0.02, 0.1, 0.2, 0.5, 0.9}[rng.nextInt(6)];
+            int mines = Math.min(cells - 1, (int) (cells * density));
+            int firstR = rng.nextInt(rows), firstC = rng.nextInt(cols);
+            int[][] layout = new RandomMinePlacer(new Random(rng.nextLong())).placeMines(rows, cols, mines, firstR, firstC);
+            MinePlacer fixed = (r, c, m, sr, sc) -> layout;
+
+            String where = "game " + game + " (" + rows + "x" + cols + ", " + mines + " mines)";
+            Board grid = new GridBoard(rows, cols, mines, fixed);
+            Board bits = new BitBoard(rows, cols, mines, fixed);
+            if (rng.nextInt(4) == 0) { // flags placed before the first reveal
+                int r = rng.nextInt(rows), c = rng.nextInt(cols);
+                grid = step(grid, bits, grid.toggleFlag(r, c), bits.toggleFlag(r, c), where + " pre-flag");
+                bits = bits.toggleFlag(r, c);
+            }
+            Board nextGrid = grid.reveal(firstR, firstC), nextBits = bits.reveal(firstR, firstC);
+            grid = step(grid, bits, nextGrid, nextBits, where + " first reveal");
+            bits = nextBits;
+
+            for (int move = 0; move < MAX_MOVES && !grid.isLost() && !grid.isWon(); move++) {
+                int r = rng.nextInt(rows), c = rng.nextInt(cols);
+                String what = where + " move " + move;
+                switch (rng.nextInt(5)) {
+                    case 0, 1 -> {
+                        nextGrid = grid.reveal(r, c);
+                        nextBits = bits.reveal(r, c);
+                        what += " reveal " + r + "," + c;
+                    }
+                    case 2 -> {
+                        nextGrid = grid.toggleFlag(r, c);
+                        nextBits = bits.toggleFlag(r, c);
+                        what += " flag " + r + "," + c;
+                    }
+                    case 3 -> {
+                        nextGrid = grid.chord(r, c);
+                        nextBits = bits.chord(r, c);
+                        what += " chord " + r + "," + c;
+                    }
+                    default -> {
+                        List<Cell> batch = new ArrayList<>();
+                        for (int k = 1 + rng.nextInt(6); k > 0; k--) {
+                            batch.add(new Cell(rng.nextInt(rows), rng.nextInt(cols)));
+                        }
+                        nextGrid = grid.revealAll(batch);
+                        nextBits = bits.revealAll(batch);
+                        what += " revealAll " + batch;
+                    }
+                }
+                grid = step(grid, bits, nextGrid, nextBits, what);
+                bits = nextBits;
+            }
+        }
+    }
+
+    /** Checks one move on both boards; returns the new GridBoard. */
+    private static Board step(Board grid, Board bits, Board nextGrid, Board nextBits, String what) {
+        assertSame(nextGrid, nextBits, what);
+        int[] expected = nextGrid.changedCells(grid);
+        int[] actual = nextBits.changedCells(bits);
+        if (expected != null && actual != null) {
+            // same set; BitBoard reports row-major order, GridBoard BFS order
+            int[] a = expected.clone(), b = actual.clone();
+            Arrays.sort(a);
+            Arrays.sort(b);
+            assert Arrays.equals(a, b) : what + ": changedCells differ";
+        }
+        return nextGrid;
+    }
+
+    private static void assertSame(Board grid, Board bits, String what) {
+        assert grid.isLost() == bits.isLost() : what + ": isLost";
+        assert grid.isWon() == bits.isWon() : what + ": isWon";
+        assert grid.flaggedCount() == bits.flaggedCount() : what + ": flaggedCount";
+        assert grid.totalMines() == bits.totalMines() : what + ": totalMines";
+        for (int r = 0; r < grid.rows(); r++) {
+            for (int c = 0; c < grid.cols(); c++) {
+                assert grid.visibleAt(r, c) == bits.visibleAt(r, c) : what + ": visibleAt " + r + "," + c;
+                if (grid.visibleAt(r, c).isRevealed()) {
+                    assert grid.adjacentMines(r, c) == bits.adjacentMines(r, c) : what + ": adjacentMines " + r + "," + c;
+                }
+            }
+        }
+    }
+}
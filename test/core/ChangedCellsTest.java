@@ -0,0 +1,61 @@
+package core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Checks {@link Board#changedCells} against earlier positions of the same
+ * game, not just the parent: every cell whose visible state differs must be
+ * listed, and nothing outside the cells the skipped moves touched. Gaps past
+ * the change log's reach may answer null, never a wrong list.
+ */
+public class ChangedCellsTest {
+    private static final int GAMES = 150;
+    private static final int MAX_MOVES = 120;
+
+    public void testChangedCellsAcrossSkippedVersions() {
+        Random rng = new Random(20_240_705L);
+        for (int game = 0; game < GAMES; game++) {
+            int rows = 1 + rng.nextInt(40), cols = 1 + rng.nextInt(70);
+            int mines = Math.min(rows * cols - 1, (int) (rows * cols * (0.05 + rng.nextDouble() * 0.2)));
+            long seed = rng.nextLong();
+            MinePlacer placer = (r, c, m, sr, sc) -> new RandomMinePlacer(new Random(seed)).placeMines(r, c, m, sr, sc);
+            boolean bits = rng.nextBoolean();
+            Board board = bits ? new BitBoard(rows, cols, mines, placer) : new GridBoard(rows, cols, mines, placer);
+            List<Board> history = new ArrayList<>();
+            history.add(board);
+
+            for (int move = 0; move < MAX_MOVES && !board.isLost() && !board.isWon(); move++) {
+                int r = rng.nextInt(rows), c = rng.nextInt(cols);
+                board = rng.nextInt(3) == 0 ? board.toggleFlag(r, c) : board.reveal(r, c);
+                history.add(board);
+                for (int k = 0; k < 4; k++) {
+                    int back = rng.nextInt(history.size());
+                    Board earlier = history.get(history.size() - 1 - back);
+                    check(earlier, board, (bits ? "BitBoard" : "GridBoard") + " game " + game
+                            + " move " + move + ", " + back + " versions back", back <= 1);
+                }
+            }
+        }
+    }
+
+    private static void check(Board earlier, Board later, String what, boolean mustKnow) {
+        int[] changed = later.changedCells(earlier);
+        if (changed == null) {
+            assert !mustKnow : what + ": unknown diff to the parent";
+            return;
+        }
+        int[] sorted = changed.clone();
+        Arrays.sort(sorted);
+        for (int k = 1; k < sorted.length; k++) {
+            assert sorted[k] != sorted[k - 1] : what + ": cell " + sorted[k] + " listed twice";
+        }
+        int cols = later.cols();
+        for (int i = 0; i < later.rows() * cols; i++) {
+            boolean differs = earlier.visibleAt(i / cols, i % cols) != later.visibleAt(i / cols, i % cols);
+            if (differs) assert Arrays.binarySearch(sorted, i) >= 0 : what + ": changed cell " + i + " missing";
+        }
+    }
+}
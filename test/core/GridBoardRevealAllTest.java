@@ -0,0 +1,156 @@
+package core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Checks GridBoard's batched {@link GridBoard#revealAll} and
+ * {@link GridBoard#chord} against the plain chained reveals of
+ * {@link Board#revealAll}'s default. Batches run on unplaced boards (the
+ * first hidden target decides the layout), on boards mid-game, with targets
+ * repeated or out of bounds, and with a mine somewhere in the batch.
+ */
+public class GridBoardRevealAllTest {
+    private static final int GAMES = 400;
+    private static final int MAX_MOVES = 60;
+
+    public void testRevealAllMatchesChainedReveals() {
+        Random rng = new Random(20_240_702L);
+        for (int game = 0; game < GAMES; game++) {
+            int rows = 1 + rng.nextInt(rng.nextBoolean() ? 10 : 70);
+            int cols = 1 + rng.nextInt(rng.nextBoolean() ? 10 : 140);
+            int cells = rows * cols;
+            double density = new double[]{0.0, 0.05, 0.15, 0.3, 0.6}[rng.nextInt(5)];
+            int mines = Math.min(cells - 1, (int) (cells * density));
+            long seed = rng.nextLong();
+            // the same click always gets the same layout, so both paths place alike
+            MinePlacer placer = (r, c, m, sr, sc) -> new RandomMinePlacer(new Random(seed)).placeMines(r, c, m, sr, sc);
+            String where = "game " + game + " (" + rows + "x" + cols + ", " + mines + " mines)";
+
+            Board board = new GridBoard(rows, cols, mines, placer);
+            if (rng.nextInt(3) == 0) board = board.toggleFlag(rng.nextInt(rows), rng.nextInt(cols));
+            if (rng.nextInt(8) == 0) { // nothing to act on: flagged and out-of-bounds targets only
+                List<Cell> idle = new ArrayList<>(List.of(new Cell(-1, 0), new Cell(rows, cols)));
+                for (int r = 0; r < rows; r++) {
+                    for (int c = 0; c < cols; c++) {
+                        if (board.visibleAt(r, c).isFlagged()) idle.add(new Cell(r, c));
+                    }
+                }
+                assert board.revealAll(idle) == board : where + ": idle batch on an unplaced board";
+            }
+            board = check(board, randomBatch(rng, rows, cols), where + " first batch");
+
+            for (int move = 0; move < MAX_MOVES && !board.isLost() && !board.isWon(); move++) {
+                String what = where + " move " + move;
+                switch (rng.nextInt(4)) {
+                    case 0 -> board = check(board, randomBatch(rng, rows, cols), what);
+                    case 1 -> {
+                        List<Cell> batch = randomBatch(rng, rows, cols);
+                        Cell mine = hiddenMine(board, rng);
+                        if (mine != null) batch.add(rng.nextInt(batch.size() + 1), mine);
+                        board = check(board, batch, what + " with a mine");
+                    }
+                    case 2 -> board = board.toggleFlag(rng.nextInt(rows), rng.nextInt(cols));
+                    default -> board = checkChord(board, rng, what);
+                }
+            }
+        }
+    }
+
+    /** Compares revealAll against chained reveals; returns the batched result. */
+    private static Board check(Board board, List<Cell> batch, String what) {
+        Board batched = board.revealAll(batch);
+        Board chained = board;
+        for (Cell cell : batch) {
+            chained = chained.reveal(cell.r(), cell.c());
+        }
+        assertSame(batched, chained, what + " revealAll " + batch);
+        return batched;
+    }
+
+    /**
+     * Chords a revealed number, first flagging its mines on some calls so the
+     * chord fires, and compares with revealing its hidden neighbours one by one.
+     */
+    private static Board checkChord(Board board, Random rng, String what) {
+        int rows = board.rows(), cols = board.cols();
+        List<Cell> numbers = new ArrayList<>();
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                if (board.visibleAt(r, c).isRevealed() && board.adjacentMines(r, c) > 0) numbers.add(new Cell(r, c));
+            }
+        }
+        if (numbers.isEmpty()) return board;
+        Cell at = numbers.get(rng.nextInt(numbers.size()));
+        if (rng.nextBoolean()) {
+            for (Cell n : neighbours(board, at)) {
+                if (board.isMine(n.r(), n.c()) && board.visibleAt(n.r(), n.c()).isHidden()) {
+                    board = board.toggleFlag(n.r(), n.c());
+                }
+            }
+        }
+
+        int flagged = 0;
+        List<Cell> hidden = new ArrayList<>();
+        for (Cell n : neighbours(board, at)) {
+            VisibleState state = board.visibleAt(n.r(), n.c());
+            if (state.isFlagged()) flagged++;
+            else if (state.isHidden()) hidden.add(n);
+        }
+        Board expected = board;
+        if (flagged == board.adjacentMines(at.r(), at.c())) {
+            for (Cell n : hidden) {
+                expected = expected.reveal(n.r(), n.c());
+            }
+        }
+        Board chorded = board.chord(at.r(), at.c());
+        assertSame(chorded, expected, what + " chord " + at);
+        return chorded;
+    }
+
+    private static List<Cell> neighbours(Board board, Cell at) {
+        List<Cell> out = new ArrayList<>(8);
+        for (int dr = -1; dr <= 1; dr++) {
+            for (int dc = -1; dc <= 1; dc++) {
+                if ((dr != 0 || dc != 0) && board.inBounds(at.r() + dr, at.c() + dc)) {
+                    out.add(new Cell(at.r() + dr, at.c() + dc));
+                }
+            }
+        }
+        return out;
+    }
+
+    /** One to eight targets, some repeated or just off the board. */
+    private static List<Cell> randomBatch(Random rng, int rows, int cols) {
+        List<Cell> batch = new ArrayList<>();
+        for (int k = 1 + rng.nextInt(8); k > 0; k--) {
+            if (rng.nextInt(10) == 0) batch.add(new Cell(rng.nextInt(rows + 2) - 1, cols));
+            else if (!batch.isEmpty() && rng.nextInt(6) == 0) batch.add(batch.get(rng.nextInt(batch.size())));
+            else batch.add(new Cell(rng.nextInt(rows), rng.nextInt(cols)));
+        }
+        return batch;
+    }
+
+    private static Cell hiddenMine(Board board, Random rng) {
+        List<Cell> found = new ArrayList<>();
+        for (int r = 0; r < board.rows(); r++) {
+            for (int c = 0; c < board.cols(); c++) {
+                if (board.isMine(r, c) && board.visibleAt(r, c).isHidden()) found.add(new Cell(r, c));
+            }
+        }
+        return found.isEmpty() ? null : found.get(rng.nextInt(found.size()));
+    }
+
+    private static void assertSame(Board actual, Board expected, String what) {
+        assert actual.isLost() == expected.isLost() : what + ": isLost";
+        assert actual.isWon() == expected.isWon() : what + ": isWon";
+        assert actual.flaggedCount() == expected.flaggedCount() : what + ": flaggedCount";
+        for (int r = 0; r < actual.rows(); r++) {
+            for (int c = 0; c < actual.cols(); c++) {
+                assert actual.visibleAt(r, c) == expected.visibleAt(r, c) : what + ": visibleAt " + r + "," + c;
+                assert actual.isMine(r, c) == expected.isMine(r, c) : what + ": isMine " + r + "," + c;
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package core;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Checks the board symmetries {@link NoGuessMinePlacer} serves pooled layouts
+ * through: four mirror images on every board, four more transposed ones on
+ * square boards. Each must be a symmetry of the grid (neighbours stay
+ * neighbours, so a layout stays solvable), keep the mine count, and put the
+ * stored opening under the click it is served for. Widths sit around
+ * multiples of 64 so rows start mid-word.
+ */
+public class NoGuessMinePlacerTest {
+    private static final int[] WIDTHS = {1, 2, 3, 9, 30, 63, 64, 65, 127, 128, 129};
+    private static final int[] HEIGHTS = {1, 3, 16, 64, 65};
+    private static final int CLICKS = 8; // per board and symmetry
+
+    public void testSymmetriesMoveOpeningOntoClick() {
+        Random rng = new Random(20_240_707L);
+        for (int cols : WIDTHS) {
+            for (int rows : HEIGHTS) {
+                check(rng, rows, cols);
+                if (rows != cols) check(rng, cols, cols); // square boards use all eight
+            }
+        }
+    }
+
+    private static void check(Random rng, int rows, int cols) {
+        int size = rows * cols;
+        int symmetries = rows == cols ? 8 : 4;
+        for (int t = 0; t < symmetries; t++) {
+            String where = rows + "x" + cols + ", symmetry " + t;
+            checkPermutation(rows, cols, t, where);
+            for (int k = 0; k < CLICKS; k++) {
+                int r = rng.nextInt(rows), c = rng.nextInt(cols);
+                int mines = Math.max(0, Math.min(size - 9, (int) (size * rng.nextDouble() * 0.4)));
+                // the stored layout keeps its opening where the click comes from under this symmetry
+                int from = NoGuessMinePlacer.source(t, rows, cols, r, c);
+                long[] stored = RandomMinePlacer.sample(rng, rows, cols, mines, from / cols, from % cols);
+                long[] before = stored.clone();
+                long[] shown = NoGuessMinePlacer.transform(stored, t, rows, cols);
+                String what = where + ", " + mines + " mines, click " + r + "," + c;
+
+                assert Arrays.equals(stored, before) : what + ": stored layout modified";
+                assert t != 0 || shown == stored : what + ": identity copies";
+                int count = 0;
+                for (long word : shown) count += Long.bitCount(word);
+                assert count == mines : what + ": " + count + " mines, want " + mines;
+                for (int nr = Math.max(0, r - 1); nr <= Math.min(rows - 1, r + 1); nr++) {
+                    for (int nc = Math.max(0, c - 1); nc <= Math.min(cols - 1, c + 1); nc++) {
+                        assert !mine(shown, nr * cols + nc) : what + ": mine at " + nr + "," + nc + " next to the click";
+                    }
+                }
+                for (int i = 0; i < size; i++) {
+                    int j = NoGuessMinePlacer.source(t, rows, cols, i / cols, i % cols);
+                    assert mine(shown, i) == mine(stored, j) : what + ": cell " + i + " does not show cell " + j;
+                }
+            }
+        }
+    }
+
+    /** Every cell is the source of exactly one cell, and neighbours come from neighbours. */
+    private static void checkPermutation(int rows, int cols, int t, String where) {
+        boolean[] hit = new boolean[rows * cols];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                int from = NoGuessMinePlacer.source(t, rows, cols, r, c);
+                assert from >= 0 && from < hit.length && !hit[from] : where + ": cell " + from + " shown twice";
+                hit[from] = true;
+                if (c + 1 < cols) assertAdjacent(from, NoGuessMinePlacer.source(t, rows, cols, r, c + 1), cols, where);
+                if (r + 1 < rows) assertAdjacent(from, NoGuessMinePlacer.source(t, rows, cols, r + 1, c), cols, where);
+            }
+        }
+    }
+
+    private static void assertAdjacent(int a, int b, int cols, String where) {
+        int dr = Math.abs(a / cols - b / cols), dc = Math.abs(a % cols - b % cols);
+        assert dr + dc == 1 : where + ": cells " + a + " and " + b + " are not neighbours";
+    }
+
+    private static boolean mine(long[] bits, int i) {
+        return (bits[i >>> 6] >>> i & 1) != 0;
+    }
+}
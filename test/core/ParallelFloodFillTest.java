@@ -0,0 +1,76 @@
+package core;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Floods sparse boards with {@link ParallelFloodFill} taking over early and
+ * checks the revealed cells against a fill that never hands off. One board
+ * has over 1 << 20 cells; the others are small enough that a flood crosses
+ * block edges (128 cells) many times. The floods run inside a four-thread
+ * pool, so the blocks of a round really run side by side on any machine.
+ */
+public class ParallelFloodFillTest {
+    private static final int[][] SIZES = {{1, 5000}, {5000, 1}, {127, 129}, {128, 128}, {300, 517}, {1024, 1025}};
+    private static final int[] HANDOFFS = {0, 1, 100, 5000};
+
+    public void testParallelRevealMatchesSequential() {
+        Random rng = new Random(20_240_704L);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int[] size : SIZES) {
+                int rows = size[0], cols = size[1];
+                for (double density : new double[]{0.01, 0.05, 0.12}) {
+                    int mines = (int) (rows * cols * density);
+                    long[] bits = RandomMinePlacer.sample(rng, rows, cols, mines, rng.nextInt(rows), rng.nextInt(cols));
+                    CellStore start = CellStore.filled(rows * cols, (byte) CellStore.HIDDEN)
+                            .withLayout(AdjacencyCounter.count(bits, rows, cols));
+                    int[] seeds = seeds(start, rng, 1 + rng.nextInt(4));
+                    String where = rows + "x" + cols + ", " + mines + " mines, seeds " + Arrays.toString(seeds);
+
+                    CellStore.Editor expected = start.edit();
+                    IntList expectedLog = new IntList();
+                    int expectedCount = FloodFill.reveal(expected, rows, cols, seeds.clone(), seeds.length,
+                            expectedLog, Integer.MAX_VALUE);
+                    CellStore sequential = expected.freeze();
+
+                    for (int handoff : HANDOFFS) {
+                        String what = where + ", handoff " + handoff;
+                        CellStore.Editor actual = start.edit();
+                        IntList log = new IntList();
+                        int count = pool.submit(() -> FloodFill.reveal(actual, rows, cols, seeds.clone(), seeds.length,
+                                log, handoff)).join();
+                        CellStore parallel = actual.freeze();
+
+                        assert count == expectedCount : what + ": revealed " + count + ", want " + expectedCount;
+                        assert log.size() == count : what + ": log holds " + log.size() + " cells";
+                        int[] a = log.toArray(), b = expectedLog.toArray();
+                        Arrays.sort(a);
+                        Arrays.sort(b);
+                        assert Arrays.equals(a, b) : what + ": logged cells differ";
+                        for (int i = 0; i < rows * cols; i++) {
+                            assert parallel.get(i) == sequential.get(i) : what + ": cell " + i;
+                        }
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /** Distinct hidden non-mine cells, preferring zeros so the floods grow. */
+    private static int[] seeds(CellStore cells, Random rng, int count) {
+        int[] seeds = new int[count];
+        for (int k = 0; k < count; k++) {
+            int i;
+            int tries = 0;
+            do {
+                i = rng.nextInt(cells.size());
+            } while ((CellStore.isMine(cells.get(i)) || (tries++ < 50 && CellStore.countOf(cells.get(i)) != 0)));
+            seeds[k] = i;
+        }
+        return seeds;
+    }
+}
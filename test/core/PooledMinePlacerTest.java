@@ -0,0 +1,89 @@
+package core;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Checks {@link PooledMinePlacer}'s remap of stored layouts onto the click:
+ * for every click class, on widths around multiples of 64 (where rows start
+ * mid-word and the 64-bit copies split), the clear block must land around
+ * the click, the mine count must stay the same, and every cell must end up
+ * where a plain per-cell shift and mirror puts it.
+ */
+public class PooledMinePlacerTest {
+    private static final int[] WIDTHS = {3, 4, 5, 31, 63, 64, 65, 66, 100, 127, 128, 129, 191, 192, 193};
+    private static final int CLICKS = 12; // random clicks per class, besides the edge-most ones
+
+    public void testRemapMovesClearBlockOntoClick() {
+        Random rng = new Random(20_240_706L);
+        for (int cols : WIDTHS) {
+            for (int rows : new int[]{3, 4, 7, 64, 65}) {
+                int mines = Math.min(rows * cols - 9, (int) (rows * cols * (0.1 + rng.nextDouble() * 0.7)));
+                for (PooledMinePlacer.Zone zone : PooledMinePlacer.Zone.values()) {
+                    long[] stored = RandomMinePlacer.sample(rng, rows, cols, mines, zone.r, zone.c);
+                    String where = rows + "x" + cols + ", " + mines + " mines, " + zone;
+                    for (int[] click : clicks(rng, rows, cols)) {
+                        int r = click[0], c = click[1];
+                        if (PooledMinePlacer.zoneOf(rows, cols, r, c) != zone) continue;
+                        check(stored, rows, cols, mines, zone, r, c, where + ", click " + r + "," + c);
+                    }
+                }
+            }
+        }
+    }
+
+    /** The four corners, the cells next to them, and random cells; the caller keeps those in its class. */
+    private static int[][] clicks(Random rng, int rows, int cols) {
+        int[] rs = {0, 1, rows - 2, rows - 1};
+        int[] cs = {0, 1, cols - 2, cols - 1};
+        int[][] out = new int[rs.length * cs.length + 4 * CLICKS][];
+        int n = 0;
+        for (int r : rs) {
+            for (int c : cs) out[n++] = new int[]{r, c};
+        }
+        for (int k = 0; k < CLICKS; k++) {
+            int r = rng.nextInt(rows), c = rng.nextInt(cols);
+            out[n++] = new int[]{r, c};                                      // mostly interior
+            out[n++] = new int[]{rng.nextBoolean() ? 0 : rows - 1, c};         // row edge
+            out[n++] = new int[]{r, rng.nextBoolean() ? 0 : cols - 1};         // column edge
+            out[n++] = new int[]{r, 64 * rng.nextInt(cols / 64 + 1) % cols};   // on a word boundary
+        }
+        return out;
+    }
+
+    private static void check(long[] stored, int rows, int cols, int mines, PooledMinePlacer.Zone zone,
+                              int r, int c, String what) {
+        long[] before = stored.clone();
+        long[] moved = PooledMinePlacer.remap(stored, rows, cols, zone, r, c);
+        assert Arrays.equals(stored, before) : what + ": stored layout modified";
+        assert moved.length == stored.length : what + ": length";
+
+        int count = 0;
+        for (long word : moved) count += Long.bitCount(word);
+        assert count == mines : what + ": " + count + " mines, want " + mines;
+        for (int nr = Math.max(0, r - 1); nr <= Math.min(rows - 1, r + 1); nr++) {
+            for (int nc = Math.max(0, c - 1); nc <= Math.min(cols - 1, c + 1); nc++) {
+                assert !mine(moved, nr * cols + nc) : what + ": mine at " + nr + "," + nc + " next to the click";
+            }
+        }
+
+        // reference: shift cyclically along the class's free axes, then mirror towards the far edges
+        boolean flipRows = (zone == PooledMinePlacer.Zone.ROW_EDGE || zone == PooledMinePlacer.Zone.CORNER) && r == rows - 1;
+        boolean flipCols = (zone == PooledMinePlacer.Zone.COL_EDGE || zone == PooledMinePlacer.Zone.CORNER) && c == cols - 1;
+        int shiftR = zone == PooledMinePlacer.Zone.INTERIOR || zone == PooledMinePlacer.Zone.COL_EDGE ? r - zone.r : 0;
+        int shiftC = zone == PooledMinePlacer.Zone.INTERIOR || zone == PooledMinePlacer.Zone.ROW_EDGE ? c - zone.c : 0;
+        for (int sr = 0; sr < rows; sr++) {
+            for (int sc = 0; sc < cols; sc++) {
+                int dr = Math.floorMod(sr + shiftR, rows), dc = Math.floorMod(sc + shiftC, cols);
+                if (flipRows) dr = rows - 1 - dr;
+                if (flipCols) dc = cols - 1 - dc;
+                assert mine(stored, sr * cols + sc) == mine(moved, dr * cols + dc)
+                        : what + ": cell " + sr + "," + sc + " did not land on " + dr + "," + dc;
+            }
+        }
+    }
+
+    private static boolean mine(long[] bits, int i) {
+        return (bits[i >>> 6] >>> i & 1) != 0;
+    }
+}